@@ -0,0 +1,12 @@
+-- Adds the pg_trgm indexes behind GET /api/users/search to an existing database
+-- without blocking writes. Run with autocommit on (CONCURRENTLY cannot run in a transaction):
+--   psql -v ON_ERROR_STOP=1 -f scripts/add_search_indexes.sql
+-- On Azure Database for PostgreSQL, allow-list PG_TRGM in the azure.extensions parameter first.
+-- Databases migrated with add_soft_delete.sql already have these as partial (live-row) indexes.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+
+ANALYZE users;
@@ -0,0 +1,17 @@
+-- Adds the checkpoint table used by snapshot publication (POST /api/users/snapshot).
+-- Each run splits the id space into ranges; a row records how far its range has been published,
+-- so a stopped or failed run resumes from last_id instead of starting over.
+--   psql -v ON_ERROR_STOP=1 -f scripts/add_snapshot_checkpoints.sql
+
+CREATE TABLE IF NOT EXISTS user_snapshot_checkpoints (
+    snapshot_id UUID NOT NULL,
+    segment INT NOT NULL,
+    lower_id UUID NOT NULL,
+    upper_id UUID NOT NULL,
+    last_id UUID NOT NULL,
+    rows_published BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (snapshot_id, segment)
+);
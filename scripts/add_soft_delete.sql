@@ -0,0 +1,21 @@
+-- Adds soft delete (deleted_at tombstones) to an existing users table without blocking writes.
+-- Apply before deploying the version that maps User.deletedAt (ddl-auto=validate checks the column).
+-- Run with autocommit on (CONCURRENTLY cannot run in a transaction):
+--   psql -v ON_ERROR_STOP=1 -f scripts/add_soft_delete.sql
+
+-- Nullable column without a default: metadata-only change, no table rewrite
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- Purge queue: only tombstoned rows are indexed, so it stays tiny
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Search indexes only need live rows; rebuild them as partial indexes
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm_live ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm_live ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_name_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email_trgm;
+ALTER INDEX idx_users_name_trgm_live RENAME TO idx_users_name_trgm;
+ALTER INDEX idx_users_email_trgm_live RENAME TO idx_users_email_trgm;
+
+-- Vacuum in smaller, more frequent passes while the purge trickles deletes through
+ALTER TABLE users SET (autovacuum_vacuum_scale_factor = 0.02, autovacuum_vacuum_threshold = 1000);
@@ -0,0 +1,21 @@
+-- Adds the account status column to an existing users table without blocking writes.
+-- Apply before deploying the version that maps User.status (ddl-auto=validate checks the column).
+-- Run with autocommit on (CONCURRENTLY cannot run in a transaction):
+--   psql -v ON_ERROR_STOP=1 -f scripts/add_user_status.sql
+
+-- Constant default: metadata-only on PostgreSQL 11+, no table rewrite
+ALTER TABLE users ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE';
+
+-- Added NOT VALID and validated separately, so writes are only blocked for the ALTER itself
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'users_status_valid') THEN
+        ALTER TABLE users ADD CONSTRAINT users_status_valid
+            CHECK (status IN ('ACTIVE', 'SUSPENDED')) NOT VALID;
+    END IF;
+END $$;
+ALTER TABLE users VALIDATE CONSTRAINT users_status_valid;
+
+-- Active, live users by recent activity; the startup warm-up primes the cache from it
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_active_recent
+    ON users (updated_at DESC NULLS LAST) WHERE status = 'ACTIVE' AND deleted_at IS NULL;
@@ -0,0 +1,46 @@
+-- Checks that email lookups are planned as index scans: the user_emails primary key, then a single
+-- users partition by id. Fails (non-zero exit) if a lookup falls back to a sequential scan or reads
+-- more than one partition:
+--   psql -v ON_ERROR_STOP=1 -f scripts/explain_email_lookup.sql
+
+-- Small dev tables are cheaper to seq scan; ask whether an index path exists at all.
+SET enable_seqscan = off;
+
+DO $$
+DECLARE
+    lookups text[] := ARRAY[
+        -- email -> id (loadByEmail, gateway lookup, signup duplicate check)
+        'SELECT email, user_id FROM user_emails WHERE email = ''user@example.com''',
+        -- id -> user, with the id found above
+        'SELECT id, email, name FROM users WHERE id = ''3f2b8c9e-6d1a-4e7b-9c2f-1a8d5e4b7c60'' AND deleted_at IS NULL',
+        -- tombstone removal on signup
+        'DELETE FROM users WHERE id = ''3f2b8c9e-6d1a-4e7b-9c2f-1a8d5e4b7c60'' AND deleted_at IS NOT NULL'
+    ];
+    lookup text;
+    plan_line text;
+    plan text;
+BEGIN
+    FOREACH lookup IN ARRAY lookups LOOP
+        plan := '';
+        FOR plan_line IN EXECUTE 'EXPLAIN (COSTS OFF) ' || lookup LOOP
+            plan := plan || plan_line || E'\n';
+        END LOOP;
+        RAISE NOTICE E'%\n%', lookup, plan;
+        IF plan LIKE '%Seq Scan%' OR plan NOT LIKE '%Index%' THEN
+            RAISE EXCEPTION 'Email lookup is not index-backed: %', lookup;
+        END IF;
+        -- Pruned at plan time: exactly one users_pNN partition, no Append over all of them
+        IF lookup LIKE '%FROM users %' AND (plan LIKE '%Append%' OR plan NOT LIKE '%users_p%') THEN
+            RAISE EXCEPTION 'Lookup by id is not pruned to one partition: %', lookup;
+        END IF;
+    END LOOP;
+
+    -- For contrast: users has no email index at all, so filtering it by email scans every partition
+    plan := '';
+    FOR plan_line IN EXECUTE 'EXPLAIN (COSTS OFF) SELECT id FROM users WHERE email = ''user@example.com''' LOOP
+        plan := plan || plan_line || E'\n';
+    END LOOP;
+    RAISE NOTICE E'email filter on users (expected to scan all partitions):\n%', plan;
+END $$;
+
+RESET enable_seqscan;
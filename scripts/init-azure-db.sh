@@ -22,21 +22,66 @@ PGPASSWORD="$PASSWORD" psql -h "$HOST" \
 
 -- 기존 테이블 삭제 (cascade로 모든 의존성 포함)
 DROP TABLE IF EXISTS users CASCADE;
+DROP TABLE IF EXISTS user_emails;
 
 -- users 테이블 생성 (UUID 기반, 간소화된 구조)
 -- Azure PostgreSQL에서는 gen_random_uuid() 사용
+-- id 기준 해시 파티셔닝 (32개 파티션): id 조회/쓰기는 파티션 하나만 접근
 CREATE TABLE users (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    email VARCHAR(255) NOT NULL UNIQUE,
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    -- Stored normalized (trimmed, lower-case); unique through user_emails
+    email VARCHAR(255) NOT NULL CONSTRAINT users_email_normalized CHECK (email = lower(btrim(email))),
     name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CONSTRAINT users_status_valid CHECK (status IN ('ACTIVE', 'SUSPENDED')),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- 소프트 삭제 시각; 백그라운드 정리 작업이 나중에 실제로 삭제
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (id)
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+    FOR i IN 0..31 LOOP
+        EXECUTE format('CREATE TABLE users_p%s PARTITION OF users FOR VALUES WITH (MODULUS 32, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- 이메일 -> id 조회 테이블 (이메일 유일성 보장, 삭제 대기 행 포함)
+CREATE TABLE user_emails (
+    email VARCHAR(255) PRIMARY KEY,
+    user_id UUID NOT NULL
 );
 
 -- 인덱스 생성
-CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_created_at ON users(created_at);
 
+-- 관리자 검색용 trigram 인덱스 (이름/이메일 부분 일치)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+
+-- 삭제 대기 행만 인덱싱 (부분 인덱스)
+CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- 활성 사용자만 포함하는 부분 인덱스 (최근 활동 순)
+CREATE INDEX idx_users_active_recent ON users (updated_at DESC NULLS LAST) WHERE status = 'ACTIVE' AND deleted_at IS NULL;
+
+-- 스냅샷 발행 진행 상황 (ID 구간별 체크포인트)
+CREATE TABLE IF NOT EXISTS user_snapshot_checkpoints (
+    snapshot_id UUID NOT NULL,
+    segment INT NOT NULL,
+    lower_id UUID NOT NULL,
+    upper_id UUID NOT NULL,
+    last_id UUID NOT NULL,
+    rows_published BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (snapshot_id, segment)
+);
+
 -- 업데이트 시간 자동 갱신을 위한 함수 생성
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
@@ -50,6 +95,23 @@ $$ language 'plpgsql';
 CREATE TRIGGER update_users_updated_at BEFORE UPDATE ON users
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- 이메일 조회 테이블 동기화 트리거 (중복 이메일은 unique 위반으로 실패)
+CREATE OR REPLACE FUNCTION maintain_user_emails()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM user_emails WHERE email = OLD.email AND user_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER maintain_users_emails AFTER INSERT OR DELETE OR UPDATE OF email ON users
+    FOR EACH ROW EXECUTE FUNCTION maintain_user_emails();
+
 -- 테이블 정보 확인
 \d users
 
@@ -57,7 +119,7 @@ CREATE TRIGGER update_users_updated_at BEFORE UPDATE ON users
 INSERT INTO users (email, name) VALUES 
     ('admin@buildingbite.com', 'System Admin'),
     ('test@buildingbite.com', 'Test User')
-ON CONFLICT (email) DO NOTHING;
+ON CONFLICT DO NOTHING;
 
 -- 결과 확인
 SELECT COUNT(*) as total_users FROM users;
@@ -70,8 +132,8 @@ if [ $? -eq 0 ]; then
     echo "✅ Database initialization completed successfully!"
     echo ""
     echo "📋 Created:"
-    echo "   - users table with UUID primary key"
-    echo "   - Email uniqueness constraint"
+    echo "   - users table with UUID primary key (32 hash partitions)"
+    echo "   - Email uniqueness via user_emails lookup table"
     echo "   - Indexes for performance"
     echo "   - Auto-update timestamp trigger"
     echo "   - Sample data for testing"
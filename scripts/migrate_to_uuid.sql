@@ -2,20 +2,67 @@
 -- WARNING: This will drop the existing users table and recreate it
 -- Make sure to backup your data before running this script
 
--- Drop existing table (WARNING: This will delete all data)
+-- Drop existing tables (WARNING: This will delete all data)
 DROP TABLE IF EXISTS users CASCADE;
+DROP TABLE IF EXISTS user_emails;
 
--- Create new simplified users table with UUID primary key
+-- Create new simplified users table with UUID primary key.
+-- Hash-partitioned on id: by-id reads and writes touch one partition, and vacuum and index
+-- maintenance work on 1/32 of the table at a time. The modulus cannot be changed in place, so it
+-- is sized for the expected final row count. Existing tables: see partition_users.sql.
 CREATE TABLE users (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    email VARCHAR(255) NOT NULL UNIQUE,
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    -- Stored normalized (trimmed, lower-case); unique through user_emails (a unique index on
+    -- a partitioned table would have to include id)
+    email VARCHAR(255) NOT NULL CONSTRAINT users_email_normalized CHECK (email = lower(btrim(email))),
     name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CONSTRAINT users_status_valid CHECK (status IN ('ACTIVE', 'SUSPENDED')),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Soft-delete tombstone; rows are hard-deleted later by the service's background purge
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (id)
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+    FOR i IN 0..31 LOOP
+        EXECUTE format('CREATE TABLE users_p%s PARTITION OF users FOR VALUES WITH (MODULUS 32, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- email -> id for every users row, tombstones included. Enforces email uniqueness and serves
+-- lookups by email, which then read a single partition by id.
+CREATE TABLE user_emails (
+    email VARCHAR(255) PRIMARY KEY,
+    user_id UUID NOT NULL
 );
 
--- Create indexes for better performance
-CREATE INDEX idx_users_email ON users(email);
+-- Trigram indexes for the admin search (substring match on name and email)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+
+-- Purge queue: only tombstoned rows are indexed
+CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Active, live users by recent activity; the startup warm-up primes the cache from it
+CREATE INDEX idx_users_active_recent ON users (updated_at DESC NULLS LAST) WHERE status = 'ACTIVE' AND deleted_at IS NULL;
+
+-- Progress of snapshot publication runs (one row per id range)
+CREATE TABLE IF NOT EXISTS user_snapshot_checkpoints (
+    snapshot_id UUID NOT NULL,
+    segment INT NOT NULL,
+    lower_id UUID NOT NULL,
+    upper_id UUID NOT NULL,
+    last_id UUID NOT NULL,
+    rows_published BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (snapshot_id, segment)
+);
 
 -- Add trigger to update updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
@@ -31,6 +78,25 @@ CREATE TRIGGER update_users_updated_at
     FOR EACH ROW 
     EXECUTE FUNCTION update_updated_at_column();
 
+-- Keep user_emails in step with users; a duplicate email fails the insert with a unique violation
+CREATE OR REPLACE FUNCTION maintain_user_emails()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM user_emails WHERE email = OLD.email AND user_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER maintain_users_emails
+    AFTER INSERT OR DELETE OR UPDATE OF email ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_user_emails();
+
 -- Insert some sample data (optional)
 -- INSERT INTO users (email, name) VALUES 
 -- ('admin@example.com', 'Admin User'),
@@ -0,0 +1,88 @@
+#!/bin/bash
+
+# Smoke test of every UserController endpoint against the native executable,
+# plus startup time and resident memory. Run with "jvm" to get the same numbers for the fat jar.
+#
+# Requires a reachable database (DATABASE_URL etc.); event publishing needs Event Hubs/Kafka,
+# otherwise the create/update/delete/test-event calls wait for the producer timeout.
+# Usage: mvn -Pnative -DskipTests package && ./scripts/native-smoke-test.sh [native|jvm]
+
+MODE=${1:-native}
+PORT=${PORT:-18081}
+GRPC_PORT=${GRPC_PORT:-19090}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-60}
+EMAIL=${EMAIL:-smoke-$(date +%s)@example.com}
+BASE="http://localhost:$PORT/api/users"
+LOG=target/smoke-$MODE.log
+
+cd "$(dirname "$0")/.."
+
+if [ "$MODE" = "native" ]; then
+    [ -x target/user-service ] || { echo "ERROR: target/user-service not found, build with -Pnative first"; exit 1; }
+    target/user-service --server.port=$PORT --grpc.server.port=$GRPC_PORT --warmup.enabled=false > $LOG 2>&1 &
+else
+    java -jar target/user-service-1.0.0.jar --server.port=$PORT --grpc.server.port=$GRPC_PORT --warmup.enabled=false > $LOG 2>&1 &
+fi
+PID=$!
+trap 'kill $PID 2>/dev/null' EXIT
+
+start=$(date +%s%N)
+until [ "$(curl -s -o /dev/null -w '%{http_code}' $BASE/health)" = "200" ]; do
+    if ! kill -0 $PID 2>/dev/null; then
+        echo "ERROR: process exited, see $LOG"
+        exit 1
+    fi
+    if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge $TIMEOUT_SECONDS ]; then
+        echo "ERROR: not healthy within ${TIMEOUT_SECONDS}s, see $LOG"
+        exit 1
+    fi
+    sleep 0.02
+done
+ready_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+rss_start=$(awk '/VmRSS/ { print $2 }' /proc/$PID/status)
+
+FAILED=0
+
+# check <name> <expected status> <curl args...>; response body is left in target/smoke-body.json
+check() {
+    local name=$1 expected=$2
+    shift 2
+    local code
+    code=$(curl -s --max-time 90 -o target/smoke-body.json -w '%{http_code}' "$@")
+    if [ "$code" = "$expected" ]; then
+        echo "PASS  $name ($code)"
+    else
+        echo "FAIL  $name: expected $expected, got $code: $(head -c 300 target/smoke-body.json)"
+        FAILED=$((FAILED + 1))
+    fi
+}
+
+ADMIN=(-H "X-User-Email: admin@example.com" -H "X-User-Roles: ADMIN")
+JSON=(-H "Content-Type: application/json")
+
+check "GET  /health" 200 $BASE/health
+check "POST /api/users" 200 "${JSON[@]}" -d "{\"email\":\"$EMAIL\",\"name\":\"Smoke Test\"}" $BASE
+USER_ID=$(grep -o '"id":"[^"]*"' target/smoke-body.json | head -1 | cut -d'"' -f4)
+SELF=(-H "X-User-Id: $USER_ID" -H "X-User-Email: $EMAIL" -H "X-User-Roles: USER")
+
+check "GET  /gateway/lookup/{email}" 200 $BASE/gateway/lookup/$EMAIL
+check "GET  /{id}" 200 "${SELF[@]}" $BASE/$USER_ID
+check "GET  /me" 200 "${SELF[@]}" $BASE/me
+check "GET  /email/{email}" 200 "${SELF[@]}" $BASE/email/$EMAIL
+check "GET  /api/users (admin)" 200 "${ADMIN[@]}" "$BASE?page=0&size=5"
+check "GET  /api/users (user)" 403 "${SELF[@]}" "$BASE?page=0&size=5"
+check "PUT  /{id}" 200 "${SELF[@]}" "${JSON[@]}" -X PUT -d '{"name":"Smoke Test Renamed"}' $BASE/$USER_ID
+check "POST /test-event" 200 "${ADMIN[@]}" "${JSON[@]}" -d "{\"eventType\":\"USER_UPDATED\",\"userId\":\"$USER_ID\",\"email\":\"$EMAIL\"}" $BASE/test-event
+check "DELETE /{id}" 200 "${SELF[@]}" -X DELETE $BASE/$USER_ID
+check "GET  /gateway/lookup/{email} (deleted)" 404 $BASE/gateway/lookup/$EMAIL
+
+rss_end=$(awk '/VmRSS/ { print $2 }' /proc/$PID/status)
+
+echo ""
+echo "Mode:              $MODE"
+echo "Started in:        $(grep -o 'Started UserServiceApplication in [0-9.]* seconds' $LOG | awk '{ print $4 }') s (first healthy response after ${ready_ms} ms)"
+echo "RSS after startup: $((rss_start / 1024)) MB"
+echo "RSS after smoke:   $((rss_end / 1024)) MB"
+echo "Failures:          $FAILED"
+
+[ $FAILED -eq 0 ]
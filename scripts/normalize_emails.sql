@@ -0,0 +1,56 @@
+-- Online backfill that normalizes existing emails (trimmed, lower-case) so that
+-- lookups can use the plain UNIQUE index on users(email).
+-- Run with autocommit on (psql default); PostgreSQL 11+ for COMMIT inside DO:
+--   psql -v ON_ERROR_STOP=1 -f scripts/normalize_emails.sql
+
+-- 1. Emails that only differ by case/whitespace cannot all be normalized.
+--    They are recorded here and skipped by the backfill; merge or rename them by hand.
+CREATE TABLE IF NOT EXISTS email_normalization_conflicts AS
+SELECT lower(btrim(email)) AS normalized_email, array_agg(id ORDER BY created_at) AS user_ids
+FROM users
+GROUP BY lower(btrim(email))
+HAVING count(*) > 1;
+
+-- 2. Reject new non-normalized writes right away without scanning existing rows.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'users_email_normalized') THEN
+        ALTER TABLE users ADD CONSTRAINT users_email_normalized
+            CHECK (email = lower(btrim(email))) NOT VALID;
+    END IF;
+END $$;
+
+-- 3. Rewrite rows in small keyset batches, committing each batch to keep locks short.
+DO $$
+DECLARE
+    batch_size CONSTANT int := 1000;
+    last_id uuid := '00000000-0000-0000-0000-000000000000';
+    batch_last uuid;
+    updated int;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_last
+        FROM (SELECT id FROM users WHERE id > last_id ORDER BY id LIMIT batch_size) batch;
+        EXIT WHEN batch_last IS NULL;
+
+        UPDATE users u
+        SET email = lower(btrim(u.email))
+        WHERE u.id > last_id AND u.id <= batch_last
+          AND u.email <> lower(btrim(u.email))
+          AND NOT EXISTS (SELECT 1 FROM email_normalization_conflicts c
+                          WHERE c.normalized_email = lower(btrim(u.email)));
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        RAISE NOTICE 'normalized % rows up to %', updated, batch_last;
+
+        last_id := batch_last;
+        COMMIT;
+        PERFORM pg_sleep(0.05);
+    END LOOP;
+END $$;
+
+-- 4. Validate once conflicts are resolved (takes only a SHARE UPDATE EXCLUSIVE lock).
+--    Fails while email_normalization_conflicts still has unresolved rows.
+ALTER TABLE users VALIDATE CONSTRAINT users_email_normalized;
+
+-- 5. idx_users_email duplicated the UNIQUE constraint's index.
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email;
@@ -0,0 +1,100 @@
+-- Converts an existing users table to the hash-partitioned layout of migrate_to_uuid.sql and fills
+-- the user_emails lookup table. Copies every row, so run it in a maintenance window with the service
+-- stopped, then deploy the version that reads emails through user_emails.
+-- Runs as one transaction; any failure leaves the old table untouched:
+--   psql -v ON_ERROR_STOP=1 -1 -f scripts/partition_users.sql
+
+-- Writers would be lost between the copy and the swap
+LOCK TABLE users IN ACCESS EXCLUSIVE MODE;
+
+CREATE TABLE users_partitioned (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    email VARCHAR(255) NOT NULL CONSTRAINT users_email_normalized_p CHECK (email = lower(btrim(email))),
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CONSTRAINT users_status_valid_p CHECK (status IN ('ACTIVE', 'SUSPENDED')),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    CONSTRAINT users_partitioned_pkey PRIMARY KEY (id)
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+    FOR i IN 0..31 LOOP
+        EXECUTE format('CREATE TABLE users_p%s PARTITION OF users_partitioned FOR VALUES WITH (MODULUS 32, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- Bulk copy before any index or trigger exists on the new table
+INSERT INTO users_partitioned (id, email, name, status, created_at, updated_at, deleted_at)
+SELECT id, email, name, status, created_at, updated_at, deleted_at FROM users;
+
+CREATE TABLE user_emails (
+    email VARCHAR(255) PRIMARY KEY,
+    user_id UUID NOT NULL
+);
+INSERT INTO user_emails (email, user_id) SELECT email, id FROM users;
+
+DO $$
+DECLARE
+    old_count bigint;
+    new_count bigint;
+    email_count bigint;
+BEGIN
+    SELECT count(*) INTO old_count FROM users;
+    SELECT count(*) INTO new_count FROM users_partitioned;
+    SELECT count(*) INTO email_count FROM user_emails;
+    IF old_count <> new_count OR old_count <> email_count THEN
+        RAISE EXCEPTION 'Row counts differ: users=%, users_partitioned=%, user_emails=%', old_count, new_count, email_count;
+    END IF;
+    RAISE NOTICE 'Copied % row(s)', new_count;
+END $$;
+
+-- Also drops the old indexes and the update trigger
+DROP TABLE users CASCADE;
+ALTER TABLE users_partitioned RENAME TO users;
+ALTER TABLE users RENAME CONSTRAINT users_partitioned_pkey TO users_pkey;
+ALTER TABLE users RENAME CONSTRAINT users_email_normalized_p TO users_email_normalized;
+ALTER TABLE users RENAME CONSTRAINT users_status_valid_p TO users_status_valid;
+
+-- Same indexes as migrate_to_uuid.sql, built once per partition
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_users_active_recent ON users (updated_at DESC NULLS LAST) WHERE status = 'ACTIVE' AND deleted_at IS NULL;
+
+CREATE TRIGGER update_users_updated_at
+    BEFORE UPDATE ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE OR REPLACE FUNCTION maintain_user_emails()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM user_emails WHERE email = OLD.email AND user_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER maintain_users_emails
+    AFTER INSERT OR DELETE OR UPDATE OF email ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_user_emails();
+
+-- Purge runs delete in small batches; vacuum each partition in small passes as well
+DO $$
+BEGIN
+    FOR i IN 0..31 LOOP
+        EXECUTE format('ALTER TABLE users_p%s SET (autovacuum_vacuum_scale_factor = 0.02, autovacuum_vacuum_threshold = 1000)',
+                       lpad(i::text, 2, '0'));
+    END LOOP;
+END $$;
+
+ANALYZE users;
+ANALYZE user_emails;
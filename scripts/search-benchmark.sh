@@ -0,0 +1,74 @@
+#!/bin/bash
+
+# Benchmark of the admin search query (GET /api/users/search) on generated data.
+# Creates a scratch database on a local PostgreSQL (libpq PG* variables), loads ROWS users,
+# builds the trigram indexes and reports plan plus pgbench latency for each search case.
+#
+# Usage: PGHOST=localhost PGUSER=postgres PGPASSWORD=postgres ./scripts/search-benchmark.sh [rows]
+
+set -e
+
+ROWS=${1:-2000000}
+BENCH_DB=${BENCH_DB:-user_search_bench}
+SECONDS_PER_CASE=${SECONDS_PER_CASE:-10}
+CLIENTS=${CLIENTS:-4}
+LIMIT=${LIMIT:-21}
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+cd "$(dirname "$0")/.."
+
+echo "Creating $BENCH_DB with $ROWS users..."
+dropdb --if-exists "$BENCH_DB"
+createdb "$BENCH_DB"
+psql -q -v ON_ERROR_STOP=1 -d "$BENCH_DB" << SQL
+CREATE TABLE users (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    email VARCHAR(255) NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP
+);
+
+-- Common first/last names plus a random suffix: mixes very frequent and very rare trigrams
+INSERT INTO users (email, name)
+SELECT lower(f) || '.' || lower(l) || g || '@' || (ARRAY['example.com','mail.com','corp.io'])[1 + g % 3],
+       f || ' ' || l || ' ' || substr(md5(g::text), 1, 6)
+FROM generate_series(1, $ROWS) g,
+     LATERAL (SELECT (ARRAY['Minji','Jiwoo','Seoyeon','Hyunwoo','Daniel','Sarah','Emma','Noah'])[1 + g % 8] AS f,
+                     (ARRAY['Kim','Lee','Park','Choi','Jung','Smith','Brown','Garcia'])[1 + (g / 8) % 8] AS l) n;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+VACUUM ANALYZE users;
+SQL
+
+RARE=$(psql -Atq -d "$BENCH_DB" -c "SELECT substr(md5('$((ROWS / 2))'), 1, 6)")
+CURSOR=$(psql -Atq -d "$BENCH_DB" -c "SELECT id FROM users WHERE name ILIKE '%park%' AND deleted_at IS NULL ORDER BY id OFFSET 1000 LIMIT 1")
+
+# Same SQL Hibernate generates for UserRepository.search
+query() {
+    local term=$1 after=${2:-00000000-0000-0000-0000-000000000000}
+    echo "SELECT u.id, u.name FROM users u WHERE (u.name ILIKE '%$term%' ESCAPE '!' OR u.email LIKE '%$(echo "$term" | tr '[:upper:]' '[:lower:]')%' ESCAPE '!') AND u.id > '$after' AND u.deleted_at IS NULL ORDER BY u.id FETCH FIRST $LIMIT ROWS ONLY;"
+}
+
+run_case() {
+    local label=$1 sql=$2
+    echo
+    echo "=== $label"
+    psql -Atq -d "$BENCH_DB" -c "EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) $sql" | sed 's/^/  /'
+    echo "$sql" > "$WORK_DIR/case.sql"
+    pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$SECONDS_PER_CASE" -f "$WORK_DIR/case.sql" "$BENCH_DB" \
+        | grep -E "latency average|tps" | sed 's/^/  /'
+}
+
+run_case "rare substring ($RARE)" "$(query "$RARE")"
+run_case "name substring, common (park)" "$(query park)"
+run_case "name substring, common, page after $CURSOR" "$(query park "$CURSOR")"
+run_case "email prefix (seoyeon.choi12)" "$(query seoyeon.choi12)"
+run_case "no match (zzzqqq)" "$(query zzzqqq)"
+
+echo
+echo "Done. Drop the scratch database with: dropdb $BENCH_DB"
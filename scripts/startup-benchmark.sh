@@ -0,0 +1,92 @@
+#!/bin/bash
+
+# Startup benchmark: time from JVM launch to the first successful gateway lookup.
+# Compares the plain fat jar with the startup-optimized mode
+# (component index + exploded classpath + AppCDS archive + prod profile).
+#
+# Requires a reachable database (DATABASE_URL etc.) containing LOOKUP_EMAIL.
+# Usage: LOOKUP_EMAIL=user@example.com ./scripts/startup-benchmark.sh [iterations]
+
+set -e
+
+ITERATIONS=${1:-5}
+PORT=${PORT:-18081}
+GRPC_PORT=${GRPC_PORT:-19090}
+LOOKUP_EMAIL=${LOOKUP_EMAIL:-user@example.com}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+JAVA_OPTS=${JAVA_OPTS:-"-XX:ActiveProcessorCount=1"}
+RESULTS_FILE=${RESULTS_FILE:-target/startup-benchmark.csv}
+
+cd "$(dirname "$0")/.."
+
+echo "Building (fast-startup profile)..."
+mvn -q -B clean package -DskipTests -Pfast-startup
+
+echo "Preparing exploded classpath and CDS archive..."
+rm -rf target/cds && mkdir -p target/cds/lib
+(
+    cd target/cds
+    jar xf ../user-service-1.0.0.jar BOOT-INF/lib
+    mv BOOT-INF/lib/*.jar lib/
+    rm -rf BOOT-INF
+    cp ../user-service-1.0.0.jar.original app.jar
+    echo "-cp app.jar:$(ls lib/*.jar | sort | tr '\n' ':' | sed 's/:$//')" > classpath.args
+    java -XX:ArchiveClassesAtExit=app.jsa -Dspring.profiles.active=cds-training \
+        @classpath.args com.example.userservice.UserServiceApplication > training.log 2>&1
+)
+
+# Runs one start, prints milliseconds until the first HTTP 200 from the gateway lookup
+measure() {
+    local mode=$1
+    local start end pid code
+    start=$(date +%s%N)
+    if [ "$mode" = "baseline" ]; then
+        java $JAVA_OPTS -jar target/user-service-1.0.0.jar \
+            --server.port=$PORT --grpc.server.port=$GRPC_PORT --warmup.enabled=false \
+            > target/startup-$mode.log 2>&1 &
+    else
+        (cd target/cds && exec java $JAVA_OPTS -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+            -Dspring.profiles.active=prod @classpath.args com.example.userservice.UserServiceApplication \
+            --server.port=$PORT --grpc.server.port=$GRPC_PORT --warmup.enabled=false) \
+            > target/startup-$mode.log 2>&1 &
+    fi
+    pid=$!
+
+    code=000
+    while [ "$code" != "200" ]; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "ERROR: $mode: process exited, see target/startup-$mode.log" >&2
+            return 1
+        fi
+        if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge $TIMEOUT_SECONDS ]; then
+            echo "ERROR: $mode: no successful lookup within ${TIMEOUT_SECONDS}s" >&2
+            kill $pid
+            return 1
+        fi
+        code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/api/users/gateway/lookup/$LOOKUP_EMAIL" || true)
+        [ "$code" = "200" ] || sleep 0.05
+    done
+    end=$(date +%s%N)
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+echo "mode,iteration,time_to_first_lookup_ms" > "$RESULTS_FILE"
+for mode in baseline fast-startup; do
+    for i in $(seq 1 "$ITERATIONS"); do
+        ms=$(measure "$mode")
+        echo "$mode,$i,$ms" >> "$RESULTS_FILE"
+        echo "$mode #$i: ${ms} ms"
+    done
+done
+
+echo ""
+echo "Time to first successful lookup (ms)"
+for mode in baseline fast-startup; do
+    grep "^$mode," "$RESULTS_FILE" | cut -d, -f3 | sort -n | awk -v mode="$mode" '
+        { v[NR] = $1 }
+        END { printf "%-14s min=%d median=%d max=%d\n", mode, v[1], v[int((NR + 1) / 2)], v[NR] }'
+done
+echo "Results written to $RESULTS_FILE"
@@ -0,0 +1,240 @@
+package com.example.userservice.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deleting many users one request at a time against the admin bulk delete. Starts the packaged
+ * service on an embedded PostgreSQL and Kafka broker (see LoadTestEnvironment) and adds
+ * {@code --users} accounts under @purge.example next to the load seed users. {@code --single} of
+ * them are deleted through DELETE /api/users/{id} from {@code --clients} clients, the rest through
+ * POST /api/users/bulk-delete (by ids, or by email domain with {@code --mode=filter}), polling its
+ * status until done ({@code --cancel-after-ms} cancels it early). Gateway lookups of seed users run
+ * throughout, and their latency is printed for each phase with the deletion rates.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.BulkDeleteBenchmark \
+ *   -Dexec.args="--jar=target/user-service-1.0.0.jar --users=50000"
+ * </pre>
+ *
+ * Chunk size and pause can be changed with e.g. {@code --app-args=--bulk-delete.chunk-size=1000}.
+ */
+public class BulkDeleteBenchmark {
+
+    private static final Pattern DELETED = Pattern.compile("\"deleted\":(\\d+)");
+    private static final Pattern STATE = Pattern.compile("\"state\":\"([A-Z]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String jar = option(args, "jar", "target/user-service-1.0.0.jar");
+        int port = Integer.parseInt(option(args, "port", "18081"));
+        int users = Integer.parseInt(option(args, "users", "50000"));
+        int single = Integer.parseInt(option(args, "single", "2000"));
+        int clients = Integer.parseInt(option(args, "clients", "8"));
+        int probes = Integer.parseInt(option(args, "probes", "2"));
+        String mode = option(args, "mode", "ids");
+        long cancelAfterMillis = Long.parseLong(option(args, "cancel-after-ms", "0"));
+        String appArgs = option(args, "app-args", "");
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            environment.startDependencies(1000);
+            List<UUID> purge = new ArrayList<>(users);
+            try (Connection connection = environment.database().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO users (email, name)"
+                        + " SELECT 'purge-' || g || '@purge.example', 'Purge User ' || g FROM generate_series(1, " + users + ") g");
+                statement.execute("ANALYZE users");
+                try (ResultSet rs = statement.executeQuery("SELECT id FROM users WHERE email LIKE '%@purge.example'")) {
+                    while (rs.next()) {
+                        purge.add(rs.getObject(1, UUID.class));
+                    }
+                }
+            }
+            List<String> serviceArgs = new ArrayList<>(List.of("--timing.sample-rate=0",
+                    "--bulkhead.enabled=false", "--rate-limit.enabled=false"));
+            if (!appArgs.isBlank()) {
+                serviceArgs.addAll(Arrays.asList(appArgs.trim().split("\\s+")));
+            }
+            environment.startService(jar, port, 19091, serviceArgs, Duration.ofMinutes(3));
+
+            String base = "http://localhost:" + port + "/api/users";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            List<HttpRequest> lookups = new ArrayList<>();
+            for (LoadTestEnvironment.SeedUser user : environment.users().subList(0, 100)) {
+                lookups.add(HttpRequest.newBuilder(URI.create(base + "/gateway/lookup/"
+                        + URLEncoder.encode(user.email, StandardCharsets.UTF_8))).GET().build());
+            }
+
+            System.out.printf("%,d users to delete: %,d one by one from %d clients, the rest by %s; %d lookup clients%n",
+                    users, single, clients, mode, probes);
+            ExecutorService pool = Executors.newFixedThreadPool(clients + probes);
+            try {
+                report("lookup, idle", probe(client, lookups, pool, probes, () -> sleep(3000)));
+
+                AtomicInteger next = new AtomicInteger();
+                Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+                long[] elapsed = new long[1];
+                long[] latencies = probe(client, lookups, pool, probes, () -> {
+                    long t0 = System.nanoTime();
+                    List<Future<?>> deleters = new ArrayList<>();
+                    for (int c = 0; c < clients; c++) {
+                        deleters.add(pool.submit(() -> {
+                            int i;
+                            while ((i = next.getAndIncrement()) < single) {
+                                HttpRequest delete = admin(HttpRequest.newBuilder(URI.create(base + "/" + purge.get(i))))
+                                        .DELETE().build();
+                                int status = client.send(delete, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                            }
+                            return null;
+                        }));
+                    }
+                    for (Future<?> deleter : deleters) {
+                        deleter.get();
+                    }
+                    elapsed[0] = System.nanoTime() - t0;
+                });
+                report("lookup, one by one", latencies);
+                System.out.printf("%-22s %,d users in %.1f s = %,.0f/min, by status %s%n", "one by one",
+                        single, elapsed[0] / 1e9, single / (elapsed[0] / 6e10), statuses);
+
+                String body = mode.equals("filter")
+                        ? "{\"emailDomain\":\"purge.example\"}"
+                        : "{\"ids\":[" + String.join(",", purge.subList(single, purge.size()).stream()
+                                .map(id -> "\"" + id + "\"").toArray(String[]::new)) + "]}";
+                long[] deleted = new long[1];
+                String[] state = new String[1];
+                latencies = probe(client, lookups, pool, probes, () -> {
+                    long t0 = System.nanoTime();
+                    HttpResponse<String> started = client.send(admin(HttpRequest.newBuilder(URI.create(base + "/bulk-delete")))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+                    if (started.statusCode() != 202) {
+                        throw new IllegalStateException("bulk delete not started: " + started.statusCode() + " " + started.body());
+                    }
+                    HttpRequest status = admin(HttpRequest.newBuilder(URI.create(base + "/bulk-delete"))).GET().build();
+                    boolean cancelled = false;
+                    do {
+                        Thread.sleep(200);
+                        if (cancelAfterMillis > 0 && !cancelled && System.nanoTime() - t0 > cancelAfterMillis * 1_000_000) {
+                            cancelled = true;
+                            client.send(admin(HttpRequest.newBuilder(URI.create(base + "/bulk-delete"))).DELETE().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                        }
+                        String progress = client.send(status, HttpResponse.BodyHandlers.ofString()).body();
+                        Matcher matcher = STATE.matcher(progress);
+                        state[0] = matcher.find() ? matcher.group(1) : "?";
+                        matcher = DELETED.matcher(progress);
+                        deleted[0] = matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+                    } while (state[0].equals("RUNNING") || state[0].equals("CANCELLING"));
+                    elapsed[0] = System.nanoTime() - t0;
+                });
+                report("lookup, bulk", latencies);
+                System.out.printf("%-22s %,d users in %.1f s = %,.0f/min, %s%n", "bulk",
+                        deleted[0], elapsed[0] / 1e9, deleted[0] / (elapsed[0] / 6e10), state[0]);
+            } finally {
+                pool.shutdownNow();
+            }
+
+            try (Connection connection = environment.database().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT count(*) FROM users"
+                         + " WHERE email LIKE '%@purge.example' AND deleted_at IS NULL")) {
+                rs.next();
+                System.out.printf("%-22s %,d%n", "left undeleted", rs.getLong(1));
+            }
+        }
+        System.exit(0);
+    }
+
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    private static HttpRequest.Builder admin(HttpRequest.Builder builder) {
+        return builder.header("X-User-Email", "bulk-admin@example.com").header("X-User-Roles", "ADMIN");
+    }
+
+    // Runs the phase while the clients call random lookups back to back; latencies in ns, -1 for a non-200
+    private static long[] probe(HttpClient client, List<HttpRequest> lookups, ExecutorService pool, int clients,
+                                Phase phase) throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            futures.add(pool.submit(() -> {
+                for (int i = offset; running.get(); i += clients) {
+                    long t0 = System.nanoTime();
+                    int status = client.send(lookups.get(i % lookups.size()), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    latencies.add(status == 200 ? System.nanoTime() - t0 : -1L);
+                }
+                return null;
+            }));
+        }
+        try {
+            phase.run();
+        } finally {
+            running.set(false);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void report(String label, long[] latencies) {
+        long failed = Arrays.stream(latencies).filter(l -> l < 0).count();
+        long[] sorted = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+        System.out.printf("%-22s %7d ok  p50=%7.3fms  p99=%8.3fms  max=%8.3fms  non-200=%d%n",
+                label, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0), failed);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.userservice.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gateway lookup latency on its own and while admin listings and signups saturate the service,
+ * against a running instance. With the bulkheads enabled the lookup p99 should stay close to the
+ * baseline while the flood traffic is shed with 503.
+ *
+ * Signups create real users (bulkhead-bench-*@example.com); run it against a disposable database.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.BulkheadIsolationBenchmark \
+ *   -Dexec.args="--email=user@example.com --requests=20000 --concurrency=16 --flood=64"
+ * </pre>
+ */
+public class BulkheadIsolationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = option(args, "host", "localhost");
+        int port = Integer.parseInt(option(args, "port", "8081"));
+        String email = option(args, "email", "user@example.com");
+        int requests = Integer.parseInt(option(args, "requests", "20000"));
+        int concurrency = Integer.parseInt(option(args, "concurrency", "16"));
+        int flood = Integer.parseInt(option(args, "flood", "64"));
+        int pageSize = Integer.parseInt(option(args, "page-size", "100"));
+
+        String base = "http://" + host + ":" + port + "/api/users";
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest lookup = HttpRequest.newBuilder(
+                URI.create(base + "/gateway/lookup/" + URLEncoder.encode(email, StandardCharsets.UTF_8))).GET().build();
+
+        ExecutorService lookupPool = Executors.newFixedThreadPool(concurrency);
+        ExecutorService floodPool = Executors.newFixedThreadPool(flood);
+        try {
+            System.out.printf("Bulkhead isolation benchmark: lookups=%d concurrency=%d flood=%d%n",
+                    requests, concurrency, flood);
+            runLookups(client, lookup, lookupPool, requests / 4, concurrency);
+            report("lookup, idle", runLookups(client, lookup, lookupPool, requests, concurrency));
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            Map<Integer, LongAdder> floodStatuses = new ConcurrentHashMap<>();
+            List<Future<?>> floods = new ArrayList<>();
+            for (int w = 0; w < flood; w++) {
+                boolean admin = w % 2 == 0;
+                // Distinct caller per worker so the per-caller rate limit is not what sheds the flood
+                String caller = "flood-" + w + "@example.com";
+                floods.add(floodPool.submit(() -> {
+                    while (running.get()) {
+                        HttpRequest request = admin
+                                ? HttpRequest.newBuilder(URI.create(base + "?page=0&size=" + pageSize))
+                                    .header("X-User-Email", caller)
+                                    .header("X-User-Roles", "ADMIN")
+                                    .GET().build()
+                                : HttpRequest.newBuilder(URI.create(base))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"bulkhead-bench-"
+                                            + UUID.randomUUID() + "@example.com\",\"name\":\"Bench\"}"))
+                                    .build();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        floodStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                    return null;
+                }));
+            }
+            Thread.sleep(2000);
+            report("lookup, flooded", runLookups(client, lookup, lookupPool, requests, concurrency));
+            running.set(false);
+            for (Future<?> future : floods) {
+                future.get();
+            }
+            System.out.println("Flood responses by status: " + floodStatuses);
+        } finally {
+            lookupPool.shutdownNow();
+            floodPool.shutdownNow();
+        }
+    }
+
+    private static final class Result {
+        final long[] latenciesNanos;
+        final long elapsedNanos;
+        final long errors;
+
+        Result(long[] latenciesNanos, long elapsedNanos, long errors) {
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+    }
+
+    private static Result runLookups(HttpClient client, HttpRequest lookup, ExecutorService pool,
+                                     int requests, int concurrency) throws Exception {
+        long[] latencies = new long[requests];
+        int perWorker = requests / concurrency;
+        LongAdder errors = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w * perWorker;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWorker; i++) {
+                    long t0 = System.nanoTime();
+                    int status = client.send(lookup, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    latencies[offset + i] = System.nanoTime() - t0;
+                    if (status != 200) {
+                        errors.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(Arrays.copyOf(latencies, perWorker * concurrency), elapsed, errors.sum());
+    }
+
+    private static void report(String label, Result result) {
+        long[] sorted = result.latenciesNanos.clone();
+        Arrays.sort(sorted);
+        double throughput = sorted.length / (result.elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%-16s %8.0f req/s  p50=%7.3fms  p99=%7.3fms  p99.9=%7.3fms  non-200=%d%n",
+                label, throughput, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), result.errors);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
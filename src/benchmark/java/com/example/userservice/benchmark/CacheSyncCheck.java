@@ -0,0 +1,190 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Cross-pod cache invalidation check: two packaged instances (A and B) on one embedded PostgreSQL
+ * and one embedded Kafka broker (see LoadTestEnvironment). B caches a user, A changes it, and the
+ * check polls B until it answers with the change: rename, suspend, activate, delete, sign-up again
+ * with the same email, then sign-up with an email B has never seen (with email-index.enabled, B
+ * must not trust its index miss). Prints how long B served the stale answer, then B's
+ * users.cache.sync.lag and users.cache.sync.delay, and exits with status 1 when B is still stale
+ * after {@code --timeout-ms}.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.CacheSyncCheck \
+ *   -Dexec.args="--jar=target/user-service-1.0.0.jar"
+ * </pre>
+ *
+ * Both instances run with cache-sync.enabled=true, which is off by default. With
+ * {@code --app-args=--cache-sync.enabled=false} B keeps serving its cached copy, which is the
+ * behaviour before the sync.
+ */
+public class CacheSyncCheck {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseA;
+    private final String baseB;
+    private final long timeoutMillis;
+    private boolean failed;
+
+    private CacheSyncCheck(int portA, int portB, long timeoutMillis) {
+        this.baseA = "http://localhost:" + portA + "/api/users";
+        this.baseB = "http://localhost:" + portB + "/api/users";
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jar = option(args, "jar", "target/user-service-1.0.0.jar");
+        int portA = Integer.parseInt(option(args, "port", "18081"));
+        int portB = portA + 1;
+        long timeoutMillis = Long.parseLong(option(args, "timeout-ms", "5000"));
+        String appArgs = option(args, "app-args", "");
+        int exitCode;
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            environment.startDependencies(200);
+            // Polling B as one user would otherwise run into the per-caller rate limit
+            List<String> serviceArgs = new ArrayList<>(List.of("--timing.sample-rate=0", "--rate-limit.enabled=false"));
+            // Off by default in application.yml; --app-args may turn it off again for comparison
+            if (!appArgs.contains("cache-sync.enabled")) {
+                serviceArgs.add("--cache-sync.enabled=true");
+            }
+            if (!appArgs.isBlank()) {
+                serviceArgs.addAll(Arrays.asList(appArgs.trim().split("\\s+")));
+            }
+            environment.startService(jar, portA, 19091, serviceArgs, Duration.ofMinutes(3));
+            environment.startService(jar, portB, 19092, serviceArgs, Duration.ofMinutes(3));
+
+            CacheSyncCheck check = new CacheSyncCheck(portA, portB, timeoutMillis);
+            LoadTestEnvironment.SeedUser admin = environment.users().get(0);
+            LoadTestEnvironment.SeedUser user = environment.users().get(7);
+            check.run(admin, user);
+            exitCode = check.failed ? 1 : 0;
+        }
+        System.exit(exitCode);
+    }
+
+    private void run(LoadTestEnvironment.SeedUser admin, LoadTestEnvironment.SeedUser user) throws Exception {
+        String email = URLEncoder.encode(user.email, StandardCharsets.UTF_8);
+        HttpRequest byIdOnB = asUser(HttpRequest.newBuilder(URI.create(baseB + "/" + user.id)), user.id.toString(), user.email, "USER")
+                .GET().build();
+        HttpRequest lookupOnB = HttpRequest.newBuilder(URI.create(baseB + "/gateway/lookup/" + email)).GET().build();
+
+        System.out.printf("%-24s %18s %s%n", "change on A", "stale on B for", "B answers");
+        // Cached on B first; cold reads on B would show the change without any sync
+        cache(byIdOnB);
+        send(asUser(HttpRequest.newBuilder(URI.create(baseA + "/" + user.id)), user.id.toString(), user.email, "USER")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Renamed On A\"}")).build());
+        await("rename", byIdOnB, response -> response.body().contains("Renamed On A"));
+
+        cache(lookupOnB);
+        send(asUser(HttpRequest.newBuilder(URI.create(baseA + "/" + user.id + "/suspend")), admin.id.toString(), admin.email, "ADMIN")
+                .PUT(HttpRequest.BodyPublishers.noBody()).build());
+        await("suspend", lookupOnB, response -> response.statusCode() == 403);
+
+        cache(lookupOnB);
+        send(asUser(HttpRequest.newBuilder(URI.create(baseA + "/" + user.id + "/activate")), admin.id.toString(), admin.email, "ADMIN")
+                .PUT(HttpRequest.BodyPublishers.noBody()).build());
+        await("activate", lookupOnB, response -> response.statusCode() == 200);
+
+        cache(lookupOnB);
+        send(asUser(HttpRequest.newBuilder(URI.create(baseA + "/" + user.id)), user.id.toString(), user.email, "USER")
+                .DELETE().build());
+        await("delete", lookupOnB, response -> response.statusCode() == 404);
+
+        // B now caches email -> the deleted account's id
+        cache(lookupOnB);
+        HttpResponse<String> created = send(HttpRequest.newBuilder(URI.create(baseA))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + user.email + "\",\"name\":\"Signed Up Again\"}"))
+                .build());
+        String newId = MAPPER.readTree(created.body()).path("id").asText();
+        await("sign-up, same email", lookupOnB, response -> response.statusCode() == 200 && response.body().contains(newId));
+
+        // Unknown to B, and to its email index if enabled, until it learns of the sign-up
+        String newEmail = "sync-" + UUID.randomUUID() + "@example.com";
+        HttpRequest newLookupOnB = HttpRequest.newBuilder(URI.create(baseB + "/gateway/lookup/"
+                + URLEncoder.encode(newEmail, StandardCharsets.UTF_8))).GET().build();
+        cache(newLookupOnB);
+        send(HttpRequest.newBuilder(URI.create(baseA))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + newEmail + "\",\"name\":\"Signed Up On A\"}"))
+                .build());
+        await("sign-up, new email", newLookupOnB, response -> response.statusCode() == 200);
+
+        System.out.println();
+        for (String metric : new String[] {"users.cache.sync.lag", "users.cache.sync.delay"}) {
+            HttpResponse<String> response = send(asUser(HttpRequest.newBuilder(URI.create(
+                    baseB.replace("/api/users", "/actuator/metrics/") + metric)), admin.id.toString(), admin.email, "ADMIN")
+                    .GET().build());
+            StringBuilder values = new StringBuilder();
+            for (JsonNode measurement : MAPPER.readTree(response.body()).path("measurements")) {
+                values.append(' ').append(measurement.path("statistic").asText()).append('=')
+                        .append(measurement.path("value").asText());
+            }
+            System.out.printf("B %-24s%s%n", metric, response.statusCode() == 200 ? values : " (not registered)");
+        }
+    }
+
+    private void cache(HttpRequest request) throws Exception {
+        send(request);
+        send(request);
+    }
+
+    private void await(String change, HttpRequest request, Predicate<HttpResponse<String>> changed) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000;
+        HttpResponse<String> response = send(request);
+        while (!changed.test(response) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            response = send(request);
+        }
+        String answer = response.statusCode() + " " + response.body();
+        if (changed.test(response)) {
+            System.out.printf("%-24s %15.0f ms %s%n", change, (System.nanoTime() - start) / 1e6, answer);
+        } else {
+            System.out.printf("%-24s %15s    %s  STALE%n", change, "> " + timeoutMillis + " ms", answer);
+            failed = true;
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder asUser(HttpRequest.Builder builder, String id, String email, String roles) {
+        return builder
+                .header("X-User-Id", id)
+                .header("X-User-Email", email)
+                .header("X-User-Roles", roles);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.userservice.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What a stalled database does to requests that do not need it. Starts the packaged service on an
+ * embedded PostgreSQL and Kafka broker (see LoadTestEnvironment) with few Tomcat threads, then holds
+ * an exclusive lock on user_emails for {@code --stall-ms} while {@code --slow} clients keep signing
+ * up (each sign-up waits on the lock) and {@code --probes} clients keep calling /api/users/health,
+ * which needs neither SQL nor a pooled connection. Prints the health latency before and during the
+ * stall and how the sign-ups were answered.
+ *
+ * Bulkheads and rate limiting are off, so the thread model alone decides: with synchronous
+ * handling the blocked sign-ups hold every Tomcat thread and health checks wait behind them; with
+ * async.enabled they hold DbCallExecutor threads and the overflow is answered 503.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.DatabaseStallBenchmark \
+ *   -Dexec.args="--jar=target/user-service-1.0.0.jar"
+ * </pre>
+ *
+ * Compare with {@code --app-args=--async.enabled=false}.
+ */
+public class DatabaseStallBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String jar = option(args, "jar", "target/user-service-1.0.0.jar");
+        int port = Integer.parseInt(option(args, "port", "18081"));
+        int tomcatThreads = Integer.parseInt(option(args, "tomcat-threads", "20"));
+        int slow = Integer.parseInt(option(args, "slow", "64"));
+        int probes = Integer.parseInt(option(args, "probes", "4"));
+        long stallMillis = Long.parseLong(option(args, "stall-ms", "8000"));
+        String appArgs = option(args, "app-args", "");
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            environment.startDependencies(200);
+            List<String> serviceArgs = new ArrayList<>(List.of("--timing.sample-rate=0",
+                    "--server.tomcat.threads.max=" + tomcatThreads, "--server.tomcat.threads.min-spare=" + tomcatThreads,
+                    "--bulkhead.enabled=false", "--rate-limit.enabled=false"));
+            if (!appArgs.isBlank()) {
+                serviceArgs.addAll(Arrays.asList(appArgs.trim().split("\\s+")));
+            }
+            environment.startService(jar, port, 19091, serviceArgs, Duration.ofMinutes(3));
+
+            String base = "http://localhost:" + port + "/api/users";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            HttpRequest health = HttpRequest.newBuilder(URI.create(base + "/health")).GET().build();
+
+            System.out.printf("tomcat threads=%d, slow sign-up clients=%d, health clients=%d, stall=%d ms, args=%s%n",
+                    tomcatThreads, slow, probes, stallMillis, appArgs.isBlank() ? "(none)" : appArgs);
+            ExecutorService pool = Executors.newFixedThreadPool(slow + probes);
+            try {
+                report("health, no stall", probe(client, health, pool, probes, 3000));
+
+                Map<Integer, LongAdder> signUps = new ConcurrentHashMap<>();
+                ConcurrentLinkedQueue<Long> signUpNanos = new ConcurrentLinkedQueue<>();
+                AtomicBoolean stalled = new AtomicBoolean(true);
+                List<Future<?>> senders = new ArrayList<>();
+                try (Connection connection = environment.database().getConnection();
+                     Statement statement = connection.createStatement()) {
+                    connection.setAutoCommit(false);
+                    // Sign-ups read user_emails first, so each one waits here
+                    statement.execute("LOCK TABLE user_emails IN ACCESS EXCLUSIVE MODE");
+                    for (int w = 0; w < slow; w++) {
+                        senders.add(pool.submit(() -> {
+                            while (stalled.get()) {
+                                HttpRequest signUp = HttpRequest.newBuilder(URI.create(base))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"stall-bench-"
+                                                + UUID.randomUUID() + "@example.com\",\"name\":\"Bench\"}"))
+                                        .build();
+                                long t0 = System.nanoTime();
+                                int status = client.send(signUp, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                signUpNanos.add(System.nanoTime() - t0);
+                                signUps.computeIfAbsent(status, s -> new LongAdder()).increment();
+                            }
+                            return null;
+                        }));
+                    }
+                    Thread.sleep(500);
+                    report("health, DB stalled", probe(client, health, pool, probes, stallMillis - 500));
+                    connection.commit();
+                }
+                stalled.set(false);
+                for (Future<?> future : senders) {
+                    future.get();
+                }
+                long[] sorted = signUpNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+                System.out.printf("%-20s by status %s, p50=%.0fms p99=%.0fms max=%.0fms%n", "sign-ups",
+                        signUps, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        System.exit(0);
+    }
+
+    // Latencies (ns) of back-to-back requests from each client for the given time; -1 marks a non-200
+    private static long[] probe(HttpClient client, HttpRequest request, ExecutorService pool, int clients,
+                                long millis) throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long t0 = System.nanoTime();
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    latencies.add(status == 200 ? System.nanoTime() - t0 : -1L);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void report(String label, long[] latencies) {
+        long failed = Arrays.stream(latencies).filter(l -> l < 0).count();
+        long[] sorted = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+        System.out.printf("%-20s %7d ok  p50=%8.3fms  p99=%9.3fms  max=%9.3fms  non-200=%d%n",
+                label, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0), failed);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
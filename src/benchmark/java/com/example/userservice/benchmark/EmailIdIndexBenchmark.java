@@ -0,0 +1,167 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.index.EmailIdIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The email -> id index (EmailIdIndex) against the obvious replica, a HashMap&lt;String, UUID&gt;.
+ *
+ * main first builds both for {@code --users} emails and prints the heap per user: the index's
+ * arrays, and for the map the used heap after full GCs before and after building it. Then it
+ * runs the lookups under JMH:
+ * hits and misses on both. Each lookup copies its email first, as parsing a request does, so
+ * HashMap cannot use the hash code String caches after the first call.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.EmailIdIndexBenchmark \
+ *   -Dexec.args="--users=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailIdIndexBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+
+    @Param({"1000000"})
+    public int users;
+
+    private EmailIdIndex index;
+    private Map<String, UUID> map;
+    private char[][] hits;
+    private char[][] misses;
+    private int next;
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.parseInt(option(args, "users", "1000000"));
+        String[] emails = emails(0, users);
+        UUID[] ids = new UUID[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+
+        EmailIdIndex index = new EmailIdIndex(users);
+        for (int i = 0; i < users; i++) {
+            index.put(emails[i], ids[i]);
+        }
+
+        // Own copies of every key and id, as when loaded from the database
+        long before = usedHeap();
+        Map<String, UUID> map = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            map.put(new String(emails[i].toCharArray()), new UUID(ids[i].getMostSignificantBits(), ids[i].getLeastSignificantBits()));
+        }
+        long mapBytes = usedHeap() - before;
+
+        System.out.printf("%,d users%n", users);
+        System.out.printf("%-28s %10.1f bytes/user (%,d KB)%n", "EmailIdIndex",
+                (double) index.allocatedBytes() / users, index.allocatedBytes() / 1024);
+        System.out.printf("%-28s %10.1f bytes/user (%,d KB)%n", "HashMap<String, UUID>",
+                (double) mapBytes / users, mapBytes / 1024);
+        // Keeps both reachable until measured
+        if (index.size() != map.size()) {
+            throw new IllegalStateException("index holds " + index.size() + ", map " + map.size());
+        }
+
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        jmhArgs.removeIf(arg -> arg.startsWith("--users="));
+        jmhArgs.addAll(List.of("-p", "users=" + users));
+        index = null;
+        map = null;
+        JmhRunner.run(EmailIdIndexBenchmark.class, jmhArgs.toArray(new String[0]));
+    }
+
+    @Setup
+    public void setUp() {
+        String[] emails = emails(0, users);
+        index = new EmailIdIndex(users);
+        map = new HashMap<>();
+        for (String email : emails) {
+            UUID id = UUID.randomUUID();
+            index.put(email, id);
+            map.put(email, id);
+        }
+        hits = new char[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            hits[i] = emails[(int) ((i * 0x9E3779B97F4A7C15L >>> 1) % users)].toCharArray();
+        }
+        misses = new char[QUERIES][];
+        String[] unknown = emails(users, QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            misses[i] = unknown[i].toCharArray();
+        }
+    }
+
+    @Benchmark
+    public UUID indexHit() {
+        return index.get(new String(hits[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public UUID indexMiss() {
+        return index.get(new String(misses[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public UUID hashMapHit() {
+        return map.get(new String(hits[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public UUID hashMapMiss() {
+        return map.get(new String(misses[next++ & (QUERIES - 1)]));
+    }
+
+    // Normalized like stored emails, same shape as the load test seed users
+    private static String[] emails(int from, int count) {
+        String[] emails = new String[count];
+        for (int i = 0; i < count; i++) {
+            emails[i] = "user" + (from + i) + "@example.com";
+        }
+        return emails;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
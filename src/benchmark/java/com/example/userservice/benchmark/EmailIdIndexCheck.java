@@ -0,0 +1,314 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.index.EmailIdIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Correctness check for the email -> id index (EmailIdIndex): put, remove, two emails on one hash
+ * (UNRESOLVED), and probe runs that wrap from the last slot to the first, including backward-shift
+ * deletion across the wrap. The index under test takes its hashes from a table, so entries land on
+ * chosen slots of a 16-slot table. A randomized run then compares puts, removes and lookups with a
+ * plain map keyed by hash, through several resizes. Exits with status 1 if any section fails.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.EmailIdIndexCheck \
+ *   -Dexec.args="--operations=200000 --seed=42"
+ * </pre>
+ */
+public class EmailIdIndexCheck {
+
+    // EmailIdIndex(1) allocates its minimum of 16 slots and grows past 12 entries
+    private static final int SMALL_CAPACITY = 16;
+    private static final int SMALL_MAX_SIZE = 12;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        int operations = Integer.parseInt(option(args, "operations", "200000"));
+        long seed = Long.parseLong(option(args, "seed", String.valueOf(System.nanoTime())));
+
+        EmailIdIndexCheck check = new EmailIdIndexCheck();
+        check.run("put and remove", check::putAndRemove);
+        check.run("growth with real hashes", check::growth);
+        check.run("shared hash", check::sharedHash);
+        check.run("wrap-around", check::wrapAround);
+        check.run("randomized, seed " + seed, () -> check.randomized(operations, seed));
+
+        if (check.failures.isEmpty()) {
+            System.out.println("All email index checks passed");
+            System.exit(0);
+        }
+        System.out.println(check.failures.size() + " failure(s):");
+        for (String failure : check.failures) {
+            System.out.println("  " + failure);
+        }
+        System.exit(1);
+    }
+
+    private void run(String name, Runnable section) {
+        int before = failures.size();
+        try {
+            section.run();
+        } catch (RuntimeException e) {
+            failures.add(name + ": " + e);
+        }
+        System.out.printf("%-32s %s%n", name, failures.size() == before ? "ok" : "FAILED");
+    }
+
+    private void putAndRemove() {
+        HashedIndex index = new HashedIndex();
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        expect("unknown email", null, index.get("a@example.com"));
+
+        index.put("a@example.com", id);
+        expect("after put", id, index.get("a@example.com"));
+        index.put("a@example.com", id);
+        expectSize("put of the same id", 1, index);
+
+        index.remove("a@example.com", other);
+        expect("remove with another id", id, index.get("a@example.com"));
+        index.remove("a@example.com", id);
+        expect("after remove", null, index.get("a@example.com"));
+        expectSize("after remove", 0, index);
+        index.remove("a@example.com", id);
+        expectSize("second remove", 0, index);
+
+        index.put("a@example.com", other);
+        expect("put after remove", other, index.get("a@example.com"));
+    }
+
+    private void growth() {
+        EmailIdIndex index = new EmailIdIndex(0);
+        long initialBytes = index.allocatedBytes();
+        int users = 20000;
+        UUID[] ids = new UUID[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+            index.put("grow-" + i + "@example.com", ids[i]);
+        }
+        if (index.allocatedBytes() <= initialBytes) {
+            failures.add("growth: table did not grow past " + initialBytes + " bytes");
+        }
+        expectSize("growth", users, index);
+        for (int i = 0; i < users; i += 2) {
+            index.remove("grow-" + i + "@example.com", ids[i]);
+        }
+        for (int i = 0; i < users; i++) {
+            UUID expected = i % 2 == 0 ? null : ids[i];
+            // A real 64-bit collision shows up as UNRESOLVED and is covered by the shared-hash section
+            UUID actual = index.get("grow-" + i + "@example.com");
+            if (actual != EmailIdIndex.UNRESOLVED) {
+                expect("growth grow-" + i, expected, actual);
+            }
+        }
+        expectSize("growth after removing half", users / 2, index);
+    }
+
+    private void sharedHash() {
+        HashedIndex index = new HashedIndex();
+        index.hashes.put("a@example.com", slotHash(3, 1));
+        index.hashes.put("b@example.com", slotHash(3, 1));
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        index.put("a@example.com", a);
+        index.put("a@example.com", a);
+        expect("one email on the hash", a, index.get("a@example.com"));
+        expect("other email before its put", a, index.get("b@example.com"));
+
+        index.put("b@example.com", b);
+        expect("first email after the second put", EmailIdIndex.UNRESOLVED, index.get("a@example.com"));
+        expect("second email", EmailIdIndex.UNRESOLVED, index.get("b@example.com"));
+        expectSize("shared hash", 1, index);
+
+        // The slot no longer matches either id, so it stays UNRESOLVED
+        index.remove("a@example.com", a);
+        expect("after removing one", EmailIdIndex.UNRESOLVED, index.get("b@example.com"));
+        index.put("a@example.com", a);
+        expect("after putting it back", EmailIdIndex.UNRESOLVED, index.get("a@example.com"));
+        expectSize("shared hash after remove and put", 1, index);
+    }
+
+    private void wrapAround() {
+        HashedIndex index = new HashedIndex();
+        if (index.allocatedBytes() != SMALL_CAPACITY * 3L * Long.BYTES) {
+            failures.add("wrap-around: expected " + SMALL_CAPACITY + " slots, got "
+                    + index.allocatedBytes() / (3 * Long.BYTES));
+            return;
+        }
+        // Three emails whose home is the last slot fill slots 15, 0 and 1; the next two are pushed
+        // past their homes (0 and 1) by the wrapped run
+        Map<String, UUID> live = new HashMap<>();
+        int[] homes = {15, 15, 15, 0, 1};
+        for (int i = 0; i < homes.length; i++) {
+            String email = "wrap-" + i + "@example.com";
+            index.hashes.put(email, slotHash(homes[i], i + 1));
+            UUID id = UUID.randomUUID();
+            index.put(email, id);
+            live.put(email, id);
+        }
+        expectAll("wrap-around after puts", index, live);
+
+        // Removing the run's first member shifts every later one back across the wrap
+        for (String email : new String[]{"wrap-0@example.com", "wrap-3@example.com", "wrap-1@example.com",
+                "wrap-4@example.com", "wrap-2@example.com"}) {
+            index.remove(email, live.remove(email));
+            expect("wrap-around removed " + email, null, index.get(email));
+            expectAll("wrap-around after removing " + email, index, live);
+        }
+
+        // A full-size run that starts at the last slot and wraps over the whole table
+        Random random = new Random(15);
+        List<String> run = new ArrayList<>();
+        for (int i = 0; i < SMALL_MAX_SIZE; i++) {
+            String email = "run-" + i + "@example.com";
+            index.hashes.put(email, slotHash(i % 2 == 0 ? 15 : random.nextInt(SMALL_CAPACITY), 100 + i));
+            UUID id = UUID.randomUUID();
+            index.put(email, id);
+            live.put(email, id);
+            run.add(email);
+        }
+        expectAll("full run after puts", index, live);
+        Collections.shuffle(run, random);
+        for (String email : run) {
+            index.remove(email, live.remove(email));
+            expectAll("full run after removing " + email, index, live);
+        }
+        expectSize("full run emptied", 0, index);
+    }
+
+    // Puts, removes and lookups against a map keyed by hash, with clustered homes and shared hashes
+    private void randomized(int operations, long seed) {
+        Random random = new Random(seed);
+        HashedIndex index = new HashedIndex();
+        int pool = 4000;
+        String[] emails = new String[pool];
+        UUID[] ownIds = new UUID[pool];
+        for (int i = 0; i < pool; i++) {
+            emails[i] = "random-" + i + "@example.com";
+            ownIds[i] = UUID.randomUUID();
+            // Homes come from 6 high bits only, so probe runs are long and cross each other; the
+            // low half tells emails apart. About 1 in 50 emails reuses another one's hash
+            long hash = i > 0 && random.nextInt(50) == 0
+                    ? index.hashes.get(emails[random.nextInt(i)])
+                    : ((long) random.nextInt(64) << 58) | (random.nextInt() & 0xffffffffL) | 1L;
+            index.hashes.put(emails[i], hash);
+        }
+
+        // hash -> {msb, lsb}; 0/0 is UNRESOLVED, as in the index
+        Map<Long, long[]> model = new HashMap<>();
+        int before = failures.size();
+        for (int op = 0; op < operations; op++) {
+            int i = random.nextInt(pool);
+            long hash = index.hashes.get(emails[i]);
+            UUID id = random.nextInt(20) == 0 ? UUID.randomUUID() : ownIds[i];
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                index.put(emails[i], id);
+                long[] current = model.get(hash);
+                if (current == null) {
+                    model.put(hash, new long[]{id.getMostSignificantBits(), id.getLeastSignificantBits()});
+                } else if (current[0] != id.getMostSignificantBits() || current[1] != id.getLeastSignificantBits()) {
+                    current[0] = 0L;
+                    current[1] = 0L;
+                }
+            } else if (kind < 8) {
+                index.remove(emails[i], id);
+                long[] current = model.get(hash);
+                if (current != null && current[0] == id.getMostSignificantBits() && current[1] == id.getLeastSignificantBits()) {
+                    model.remove(hash);
+                }
+            } else {
+                expect("op " + op + " get " + emails[i], expected(model, hash), index.get(emails[i]));
+            }
+            if (index.size() != model.size()) {
+                failures.add("op " + op + ": size " + index.size() + ", expected " + model.size());
+                return;
+            }
+            if (op % 10000 == 0 || op == operations - 1) {
+                for (int j = 0; j < pool; j++) {
+                    expect("op " + op + " scan " + emails[j], expected(model, index.hashes.get(emails[j])), index.get(emails[j]));
+                }
+            }
+            if (failures.size() > before) {
+                return;
+            }
+        }
+    }
+
+    private static UUID expected(Map<Long, long[]> model, long hash) {
+        long[] current = model.get(hash);
+        if (current == null) {
+            return null;
+        }
+        return current[0] == 0L && current[1] == 0L ? EmailIdIndex.UNRESOLVED : new UUID(current[0], current[1]);
+    }
+
+    private void expectAll(String what, EmailIdIndex index, Map<String, UUID> live) {
+        for (Map.Entry<String, UUID> entry : live.entrySet()) {
+            expect(what + ": " + entry.getKey(), entry.getValue(), index.get(entry.getKey()));
+        }
+        expectSize(what, live.size(), index);
+    }
+
+    private void expect(String what, UUID expected, UUID actual) {
+        // UNRESOLVED equals any 0/0 UUID, so compare it by identity
+        boolean same = expected == EmailIdIndex.UNRESOLVED || actual == EmailIdIndex.UNRESOLVED
+                ? expected == actual
+                : Objects.equals(expected, actual);
+        if (!same) {
+            failures.add(what + ": expected " + describe(expected) + ", got " + describe(actual));
+        }
+    }
+
+    private void expectSize(String what, int expected, EmailIdIndex index) {
+        if (index.size() != expected) {
+            failures.add(what + ": size " + index.size() + ", expected " + expected);
+        }
+    }
+
+    private static String describe(UUID id) {
+        return id == EmailIdIndex.UNRESOLVED ? "UNRESOLVED" : String.valueOf(id);
+    }
+
+    // A hash whose home is the given slot of a 16-slot table; the low bits tell emails apart
+    private static long slotHash(int slot, long low) {
+        return ((long) slot << 60) | low;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Takes the hash of each email from {@link #hashes}, so a check decides where entries land. */
+    private static final class HashedIndex extends EmailIdIndex {
+
+        private final Map<String, Long> hashes = new HashMap<>();
+
+        HashedIndex() {
+            super(1);
+        }
+
+        @Override
+        protected long hash(String email) {
+            Long hash = hashes.get(email);
+            return hash != null ? hash : super.hash(email);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.EventClock;
+import com.example.userservice.event.model.EventIdGenerator;
+import com.example.userservice.event.model.TimeOrderedEventIdGenerator;
+import com.example.userservice.event.model.UserDeletedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of creating a user event (id and timestamp included) from several threads at once.
+ *
+ * - {@code event}: new UserDeletedEvent with the generator in {@code generator}: time-ordered
+ *   (the default) or random (UUID.randomUUID(), as before), and millisecond Instant timestamps
+ * - {@code previousIdAndTimestamp}: exactly what the constructor did before, UUID.randomUUID()
+ *   as a string and LocalDateTime.now()
+ *
+ * main runs it once per thread count in {@code --threads}; other arguments go to JMH.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.EventConstructionBenchmark \
+ *   -Dexec.args="--threads=1,4,16"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventConstructionBenchmark {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Param({"time-ordered", "random"})
+    public String generator;
+
+    public static void main(String[] args) throws Exception {
+        String[] threadCounts = option(args, "threads", "1,4,16").split(",");
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        jmhArgs.removeIf(arg -> arg.startsWith("--threads="));
+        for (String threads : threadCounts) {
+            List<String> run = new ArrayList<>(jmhArgs);
+            run.addAll(List.of("-t", threads.trim()));
+            JmhRunner.run(EventConstructionBenchmark.class, run.toArray(new String[0]));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        EventIdGenerator ids = generator.equals("random")
+                ? () -> UUID.randomUUID().toString()
+                : new TimeOrderedEventIdGenerator();
+        BaseUserEvent.configure(ids, new EventClock(Clock.systemUTC(), ChronoUnit.MILLIS));
+    }
+
+    @Benchmark
+    public BaseUserEvent event() {
+        return new UserDeletedEvent(USER_ID, "user@example.com");
+    }
+
+    @Benchmark
+    public void previousIdAndTimestamp(Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID().toString());
+        blackhole.consume(LocalDateTime.now());
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
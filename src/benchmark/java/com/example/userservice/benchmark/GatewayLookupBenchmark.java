@@ -0,0 +1,140 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.grpc.proto.LookupByEmailRequest;
+import com.example.userservice.grpc.proto.UserLookupGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop latency/throughput comparison of the gateway lookup over REST (HTTP/1.1 + JSON)
+ * and gRPC (HTTP/2 + protobuf) against a locally running instance.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.GatewayLookupBenchmark \
+ *   -Dexec.args="--email=user@example.com --requests=20000 --concurrency=32"
+ * </pre>
+ */
+public class GatewayLookupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = option(args, "host", "localhost");
+        int restPort = Integer.parseInt(option(args, "rest-port", "8081"));
+        int grpcPort = Integer.parseInt(option(args, "grpc-port", "9090"));
+        String email = option(args, "email", "user@example.com");
+        int requests = Integer.parseInt(option(args, "requests", "20000"));
+        int concurrency = Integer.parseInt(option(args, "concurrency", "32"));
+        int warmup = Integer.parseInt(option(args, "warmup", "5000"));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI restUri = URI.create("http://" + host + ":" + restPort + "/api/users/gateway/lookup/"
+                + URLEncoder.encode(email, StandardCharsets.UTF_8));
+        HttpRequest restRequest = HttpRequest.newBuilder(restUri).GET().build();
+
+        ManagedChannel channel = NettyChannelBuilder.forAddress(host, grpcPort)
+                .usePlaintext()
+                .build();
+        UserLookupGrpc.UserLookupBlockingStub stub = UserLookupGrpc.newBlockingStub(channel);
+        LookupByEmailRequest grpcRequest = LookupByEmailRequest.newBuilder().setEmail(email).build();
+
+        Call rest = () -> {
+            HttpResponse<byte[]> response = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("REST lookup returned " + response.statusCode());
+            }
+        };
+        Call grpc = () -> stub.lookupByEmail(grpcRequest);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            System.out.printf("Gateway lookup benchmark: email=%s requests=%d concurrency=%d%n",
+                    email, requests, concurrency);
+            run(pool, rest, warmup, concurrency);
+            report("REST  (HTTP/1.1 JSON)", run(pool, rest, requests, concurrency));
+            run(pool, grpc, warmup, concurrency);
+            report("gRPC  (HTTP/2 proto)", run(pool, grpc, requests, concurrency));
+        } finally {
+            pool.shutdownNow();
+            channel.shutdownNow();
+        }
+    }
+
+    private interface Call {
+        void invoke() throws Exception;
+    }
+
+    private static final class Result {
+        final long[] latenciesNanos;
+        final long elapsedNanos;
+
+        Result(long[] latenciesNanos, long elapsedNanos) {
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    private static Result run(ExecutorService pool, Call call, int requests, int concurrency) throws Exception {
+        long[] latencies = new long[requests];
+        int perWorker = requests / concurrency;
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w * perWorker;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWorker; i++) {
+                    long t0 = System.nanoTime();
+                    call.invoke();
+                    latencies[offset + i] = System.nanoTime() - t0;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(Arrays.copyOf(latencies, perWorker * concurrency), elapsed);
+    }
+
+    private static void report(String label, Result result) {
+        long[] sorted = result.latenciesNanos.clone();
+        Arrays.sort(sorted);
+        double throughput = sorted.length / (result.elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%-22s %10.0f req/s  p50=%7.3fms  p90=%7.3fms  p99=%7.3fms  max=%7.3fms%n",
+                label, throughput,
+                percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
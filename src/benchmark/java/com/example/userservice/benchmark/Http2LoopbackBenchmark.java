@@ -0,0 +1,177 @@
+package com.example.userservice.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gateway lookups over HTTP/1.1 and over cleartext HTTP/2 (h2c) against a running instance, with
+ * the number of server-side connections each client ends up holding, then the size of an admin
+ * listing with and without {@code Accept-Encoding: gzip}.
+ *
+ * Connections are counted from /proc/net/tcp{,6} (Linux, loopback). Lookups shed by the bulkhead
+ * (503) count as errors; lower the concurrency to stay under its limit. To compare against the old
+ * setup, start the service with {@code --server.http2.enabled=false --server.compression.enabled=false}.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.Http2LoopbackBenchmark \
+ *   -Dexec.args="--email=user@example.com --requests=50000 --concurrency=64 --admin=admin@example.com"
+ * </pre>
+ */
+public class Http2LoopbackBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = option(args, "host", "localhost");
+        int port = Integer.parseInt(option(args, "port", "8081"));
+        String email = option(args, "email", "user@example.com");
+        String admin = option(args, "admin", "admin@example.com");
+        int requests = Integer.parseInt(option(args, "requests", "50000"));
+        int concurrency = Integer.parseInt(option(args, "concurrency", "64"));
+        int warmup = Integer.parseInt(option(args, "warmup", "10000"));
+        int pageSize = Integer.parseInt(option(args, "page-size", "100"));
+
+        String base = "http://" + host + ":" + port + "/api/users";
+        HttpRequest lookup = HttpRequest.newBuilder(URI.create(base + "/gateway/lookup/"
+                + URLEncoder.encode(email, StandardCharsets.UTF_8))).GET().build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            System.out.printf("HTTP/1.1 vs h2c loopback benchmark: requests=%d concurrency=%d%n", requests, concurrency);
+            System.out.printf("%-10s %10s %9s %9s %12s %8s%n", "protocol", "req/s", "p50 ms", "p99 ms", "connections", "errors");
+            for (HttpClient.Version version : new HttpClient.Version[] {HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2}) {
+                // A fresh client per protocol; connections of the previous one stay open, so count the difference
+                HttpClient client = HttpClient.newBuilder()
+                        .version(version)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                int before = establishedConnections(port);
+                run(client, lookup, pool, warmup, concurrency);
+                Result result = run(client, lookup, pool, requests, concurrency);
+                int connections = before < 0 ? -1 : establishedConnections(port) - before;
+                long[] sorted = result.latenciesNanos.clone();
+                Arrays.sort(sorted);
+                System.out.printf("%-10s %10.0f %9.3f %9.3f %12s %8d%n",
+                        version == HttpClient.Version.HTTP_2 ? "h2c" : "HTTP/1.1",
+                        sorted.length / (result.elapsedNanos / 1_000_000_000.0),
+                        percentile(sorted, 0.50), percentile(sorted, 0.99),
+                        connections < 0 ? "n/a" : String.valueOf(connections), result.errors);
+            }
+
+            HttpClient client = HttpClient.newHttpClient();
+            for (boolean gzip : new boolean[] {false, true}) {
+                HttpRequest.Builder listing = HttpRequest.newBuilder(URI.create(base + "?page=0&size=" + pageSize))
+                        .header("X-User-Email", admin)
+                        .header("X-User-Roles", "ADMIN");
+                if (gzip) {
+                    listing.header("Accept-Encoding", "gzip");
+                }
+                HttpResponse<byte[]> response = client.send(listing.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+                System.out.printf("admin listing (size=%d) %-14s status=%d %7d bytes  Content-Encoding=%s%n", pageSize,
+                        gzip ? "gzip accepted" : "identity", response.statusCode(), response.body().length,
+                        response.headers().firstValue("Content-Encoding").orElse("-"));
+            }
+            HttpResponse<byte[]> small = client.send(HttpRequest.newBuilder(lookup.uri())
+                    .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            System.out.printf("gateway lookup   %-22s status=%d %7d bytes  Content-Encoding=%s%n", "gzip accepted",
+                    small.statusCode(), small.body().length, small.headers().firstValue("Content-Encoding").orElse("-"));
+        } finally {
+            pool.shutdownNow();
+        }
+        System.exit(0);
+    }
+
+    private static final class Result {
+        final long[] latenciesNanos;
+        final long elapsedNanos;
+        final long errors;
+
+        Result(long[] latenciesNanos, long elapsedNanos, long errors) {
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, ExecutorService pool,
+                              int requests, int concurrency) throws Exception {
+        long[] latencies = new long[requests];
+        int perWorker = requests / concurrency;
+        LongAdder errors = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w * perWorker;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWorker; i++) {
+                    long t0 = System.nanoTime();
+                    int status = client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+                    latencies[offset + i] = System.nanoTime() - t0;
+                    if (status != 200) {
+                        errors.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(Arrays.copyOf(latencies, perWorker * concurrency), elapsed, errors.sum());
+    }
+
+    // Accepted (server-side) sockets on the port in state ESTABLISHED (01), or -1 off Linux
+    private static int establishedConnections(int port) {
+        String localPort = String.format(Locale.ROOT, ":%04X", port);
+        int count = 0;
+        boolean found = false;
+        for (String table : new String[] {"/proc/net/tcp", "/proc/net/tcp6"}) {
+            Path path = Path.of(table);
+            if (!Files.isReadable(path)) {
+                continue;
+            }
+            found = true;
+            try {
+                for (String line : Files.readAllLines(path)) {
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length > 3 && fields[1].endsWith(localPort) && fields[3].equals("01")) {
+                        count++;
+                    }
+                }
+            } catch (java.io.IOException e) {
+                return -1;
+            }
+        }
+        return found ? count : -1;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.userservice.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.StringJoiner;
+
+/**
+ * Runs a JMH benchmark class from {@code exec:java}. JMH forks use {@code java.class.path}, which
+ * under exec:java is Maven's launcher, so it is replaced with the project's test classpath first.
+ * Arguments are regular JMH options, e.g. {@code -prof gc -f 1 -wi 3 -i 5}.
+ */
+final class JmhRunner {
+
+    private JmhRunner() {
+    }
+
+    static void run(Class<?> benchmark, String[] args) throws Exception {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            StringJoiner classpath = new StringJoiner(File.pathSeparator);
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    classpath.add(new File(url.toURI()).getPath());
+                } catch (URISyntaxException e) {
+                    classpath.add(url.getPath());
+                }
+            }
+            System.setProperty("java.class.path", classpath.toString());
+        }
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(benchmark.getName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.UserServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the service against local stand-ins for its dependencies: an embedded PostgreSQL
+ * (real server binaries, no container) with the schema from scripts/migrate_to_uuid.sql, and an
+ * in-process KRaft Kafka broker in place of Event Hubs.
+ *
+ * The service starts in this JVM, or as a separate {@code java -jar} process when a jar is given,
+ * which keeps the load generator from competing with it for CPU and heap.
+ */
+class LoadTestEnvironment implements AutoCloseable {
+
+    static final class SeedUser {
+        final UUID id;
+        final String email;
+
+        SeedUser(UUID id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+
+    private EmbeddedPostgres postgres;
+    private EmbeddedKafkaKraftBroker kafka;
+    private ConfigurableApplicationContext context;
+    private final List<Process> processes = new ArrayList<>();
+
+    private final List<SeedUser> users = new ArrayList<>();
+
+    void startDependencies(int seedUsers) throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("scripts/migrate_to_uuid.sql")));
+            statement.execute("INSERT INTO users (email, name)"
+                    + " SELECT 'load-' || g || '@example.com', 'Load User ' || g FROM generate_series(1, " + seedUsers + ") g");
+            statement.execute("ANALYZE users");
+            try (ResultSet rs = statement.executeQuery("SELECT id, email FROM users")) {
+                while (rs.next()) {
+                    users.add(new SeedUser(rs.getObject(1, UUID.class), rs.getString(2)));
+                }
+            }
+        }
+
+        kafka = new EmbeddedKafkaKraftBroker(1, 1, "user-events");
+        kafka.afterPropertiesSet();
+    }
+
+    List<SeedUser> users() {
+        return users;
+    }
+
+    /** The embedded database, for benchmarks that act on it directly (e.g. to hold locks). */
+    DataSource database() {
+        return postgres.getPostgresDatabase();
+    }
+
+    /**
+     * Starts the service and waits until its readiness probe reports UP (warm-up finished).
+     * With a jar it can be called again on other ports to run several instances; the first logs to
+     * target/load-test/service.log, the others to service-PORT.log.
+     */
+    void startService(String jar, int port, int grpcPort, List<String> extraArgs, Duration timeout) throws Exception {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=" + port);
+        args.add("--grpc.server.port=" + grpcPort);
+        args.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+        args.add("--spring.datasource.username=postgres");
+        args.add("--spring.datasource.password=postgres");
+        args.add("--kafka.bootstrap-servers=" + kafka.getBrokersAsString());
+        // Own consumer group per instance (the pods' HOSTNAME in Kubernetes)
+        args.add("--cache-sync.group-id-prefix=user-service-cache-" + port + "-");
+        args.addAll(extraArgs);
+
+        Process process = null;
+        if (jar == null) {
+            context = SpringApplication.run(UserServiceApplication.class, args.toArray(new String[0]));
+        } else {
+            List<String> command = new ArrayList<>(List.of("java", "-jar", jar));
+            command.addAll(args);
+            File log = new File(processes.isEmpty() ? "target/load-test/service.log" : "target/load-test/service-" + port + ".log");
+            log.getParentFile().mkdirs();
+            process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+            processes.add(process);
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest readiness = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/actuator/health/readiness")).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (process != null && !process.isAlive()) {
+                throw new IllegalStateException("Service on port " + port + " exited, see target/load-test/");
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (java.io.IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Service not ready after " + timeout);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        for (Process process : processes) {
+            process.destroy();
+            process.waitFor();
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Capacity baseline: starts the service against local stand-ins (see LoadTestEnvironment), seeds
+ * users, and drives the gateway's traffic mix with the X-User-* headers the gateway would send.
+ * Writes throughput, p50/p99/p99.9 and response bytes per endpoint to a JSON report, plus the
+ * service's CPU time per request (process.cpu.time; includes the load generator when in-process).
+ *
+ * Closed loop: each of {@code concurrency} workers sends its next request when the previous one
+ * returns. Samples from the warm-up period are discarded.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.LoadTestHarness \
+ *   -Dexec.args="--seconds=60 --concurrency=32 --mix=lookup:70,me:15,update:7,signup:5,admin:3"
+ * </pre>
+ *
+ * Add {@code --jar=target/user-service-1.0.0.jar} (after {@code mvn package}) to run the service
+ * in its own JVM, and {@code --app-args="--spring.profiles.active=prod ..."} to pass it options.
+ */
+public class LoadTestHarness {
+
+    enum Operation {
+        LOOKUP, ME, UPDATE, SIGNUP, ADMIN
+    }
+
+    /** Growable per-worker latency buffer; merged after the run. */
+    private static final class LatencyLog {
+        long[] values = new long[1024];
+        int size;
+        final Map<Integer, Long> statuses = new TreeMap<>();
+        long failures;
+        long bytes;
+
+        void add(long nanos, int status, int responseBytes) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            statuses.merge(status, 1L, Long::sum);
+            bytes += responseBytes;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(option(args, "port", "18081"));
+        int grpcPort = Integer.parseInt(option(args, "grpc-port", "19090"));
+        int seconds = Integer.parseInt(option(args, "seconds", "60"));
+        int warmupSeconds = Integer.parseInt(option(args, "warmup-seconds", "20"));
+        int concurrency = Integer.parseInt(option(args, "concurrency", "32"));
+        int seedUsers = Integer.parseInt(option(args, "users", "10000"));
+        int admins = Integer.parseInt(option(args, "admins", "5"));
+        Map<Operation, Integer> mix = parseMix(option(args, "mix", "lookup:70,me:15,update:7,signup:5,admin:3"));
+        String jar = option(args, "jar", null);
+        String appArgs = option(args, "app-args", "");
+        String reportPath = option(args, "report", "target/load-test/report.json");
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            System.out.printf("Starting embedded PostgreSQL and Kafka, seeding %d users...%n", seedUsers);
+            environment.startDependencies(seedUsers);
+            System.out.println("Starting service" + (jar != null ? " from " + jar : " in-process") + "...");
+            environment.startService(jar, port, grpcPort,
+                    appArgs.isBlank() ? List.of() : Arrays.asList(appArgs.trim().split("\\s+")),
+                    Duration.ofMinutes(3));
+
+            List<LoadTestEnvironment.SeedUser> users = environment.users();
+            List<LoadTestEnvironment.SeedUser> adminUsers = users.subList(0, Math.min(admins, users.size()));
+            String base = "http://localhost:" + port + "/api/users";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Operation[] schedule = schedule(mix);
+
+            System.out.printf("Load test: concurrency=%d warmup=%ds measured=%ds mix=%s%n",
+                    concurrency, warmupSeconds, seconds, mix);
+            ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+            List<Future<Map<Operation, LatencyLog>>> futures = new ArrayList<>();
+            long measureFrom = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+            long end = measureFrom + seconds * 1_000_000_000L;
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(pool.submit(() -> runWorker(client, base, users, adminUsers, schedule, measureFrom, end)));
+            }
+
+            Thread.sleep(Math.max(0, (measureFrom - System.nanoTime()) / 1_000_000));
+            long cpuFrom = serviceCpuNanos(client, port, adminUsers.get(0));
+
+            Map<Operation, LatencyLog> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyLog>> future : futures) {
+                future.get().forEach((operation, log) -> merge(merged.computeIfAbsent(operation, o -> new LatencyLog()), log));
+            }
+            long cpuNanos = serviceCpuNanos(client, port, adminUsers.get(0)) - cpuFrom;
+            pool.shutdownNow();
+
+            Map<String, Object> report = report(merged, seconds, concurrency, seedUsers, mix, jar, cpuNanos);
+            File file = new File(reportPath);
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Report written to " + file.getPath());
+        }
+        // Embedded Kafka and in-process service threads are non-daemon
+        System.exit(0);
+    }
+
+    private static Map<Operation, LatencyLog> runWorker(HttpClient client, String base,
+                                                        List<LoadTestEnvironment.SeedUser> users,
+                                                        List<LoadTestEnvironment.SeedUser> admins,
+                                                        Operation[] schedule, long measureFrom, long end) {
+        Map<Operation, LatencyLog> logs = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = request(operation, base, users, admins, random);
+            int status;
+            int bytes = 0;
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                status = response.statusCode();
+                bytes = response.body().length;
+            } catch (Exception e) {
+                status = -1;
+            }
+            long finished = System.nanoTime();
+            if (now >= measureFrom) {
+                LatencyLog log = logs.computeIfAbsent(operation, o -> new LatencyLog());
+                log.add(finished - now, status, bytes);
+                if (status < 200 || status >= 300) {
+                    log.failures++;
+                }
+            }
+        }
+        return logs;
+    }
+
+    private static HttpRequest request(Operation operation, String base, List<LoadTestEnvironment.SeedUser> users,
+                                       List<LoadTestEnvironment.SeedUser> admins, ThreadLocalRandom random) {
+        LoadTestEnvironment.SeedUser user = users.get(random.nextInt(users.size()));
+        switch (operation) {
+            case LOOKUP:
+                // Called by the gateway itself, without identity headers
+                return HttpRequest.newBuilder(URI.create(base + "/gateway/lookup/"
+                        + URLEncoder.encode(user.email, StandardCharsets.UTF_8))).GET().build();
+            case ME:
+                return asUser(HttpRequest.newBuilder(URI.create(base + "/me")), user, "USER").GET().build();
+            case UPDATE:
+                return asUser(HttpRequest.newBuilder(URI.create(base + "/" + user.id)), user, "USER")
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Load User " + random.nextInt(1_000_000) + "\"}"))
+                        .build();
+            case SIGNUP:
+                // Anonymous; rate-limited per client IP, which the gateway forwards
+                return HttpRequest.newBuilder(URI.create(base))
+                        .header("Content-Type", "application/json")
+                        .header("X-Forwarded-For", "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(1, 255))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"signup-" + UUID.randomUUID()
+                                + "@example.com\",\"name\":\"Signup User\"}"))
+                        .build();
+            case ADMIN:
+            default:
+                LoadTestEnvironment.SeedUser admin = admins.get(random.nextInt(admins.size()));
+                return asUser(HttpRequest.newBuilder(URI.create(base + "?page=" + random.nextInt(50) + "&size=20")),
+                        admin, "USER,ADMIN").GET().build();
+        }
+    }
+
+    private static HttpRequest.Builder asUser(HttpRequest.Builder builder, LoadTestEnvironment.SeedUser user, String roles) {
+        return builder
+                .header("X-User-Id", user.id.toString())
+                .header("X-User-Email", user.email)
+                .header("X-User-Roles", roles);
+    }
+
+    // Cumulative CPU time of the service JVM, from its actuator
+    private static long serviceCpuNanos(HttpClient client, int port, LoadTestEnvironment.SeedUser admin) throws Exception {
+        HttpRequest request = asUser(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/actuator/metrics/process.cpu.time")), admin, "ADMIN").GET().build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return (long) new ObjectMapper().readTree(body).path("measurements").path(0).path("value").asDouble();
+    }
+
+    private static Map<String, Object> report(Map<Operation, LatencyLog> logs, int seconds, int concurrency,
+                                              int seedUsers, Map<Operation, Integer> mix, String jar, long cpuNanos) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("durationSeconds", seconds);
+        report.put("concurrency", concurrency);
+        report.put("seedUsers", seedUsers);
+        report.put("service", jar != null ? jar : "in-process");
+        Map<String, Integer> mixReport = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> mixReport.put(operation.name().toLowerCase(), weight));
+        report.put("mix", mixReport);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        LatencyLog all = new LatencyLog();
+        System.out.printf("%-8s %10s %9s %9s %9s %9s %8s %8s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "bytes");
+        for (Map.Entry<Operation, LatencyLog> entry : logs.entrySet()) {
+            String name = entry.getKey().name().toLowerCase();
+            endpoints.put(name, summary(name, entry.getValue(), seconds));
+            merge(all, entry.getValue());
+        }
+        report.put("endpoints", endpoints);
+        report.put("total", summary("total", all, seconds));
+        double cpuMsPerRequest = all.size == 0 ? 0.0 : cpuNanos / 1_000_000.0 / all.size;
+        report.put("serviceCpuMsPerRequest", cpuMsPerRequest);
+        System.out.printf("service CPU %.3f ms/request%s%n", cpuMsPerRequest, jar == null ? " (includes load generator)" : "");
+        return report;
+    }
+
+    private static Map<String, Object> summary(String name, LatencyLog log, int seconds) {
+        long[] sorted = Arrays.copyOf(log.values, log.size);
+        Arrays.sort(sorted);
+        double throughput = (double) sorted.length / seconds;
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", percentile(sorted, 0.50));
+        latency.put("p99", percentile(sorted, 0.99));
+        latency.put("p999", percentile(sorted, 0.999));
+        latency.put("max", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", sorted.length);
+        summary.put("throughputPerSecond", throughput);
+        summary.put("errors", log.failures);
+        summary.put("bytesPerResponse", log.size == 0 ? 0.0 : (double) log.bytes / log.size);
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        log.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count));
+        summary.put("statuses", statuses);
+        summary.put("latencyMs", latency);
+
+        System.out.printf("%-8s %10.0f %9.3f %9.3f %9.3f %9.3f %8d %8.0f%n", name, throughput,
+                latency.get("p50"), latency.get("p99"), latency.get("p999"), latency.get("max"), log.failures,
+                summary.get("bytesPerResponse"));
+        return summary;
+    }
+
+    private static void merge(LatencyLog target, LatencyLog source) {
+        for (int i = 0; i < source.size; i++) {
+            if (target.size == target.values.length) {
+                target.values = Arrays.copyOf(target.values, Math.max(target.size * 2, target.size + source.size));
+            }
+            target.values[target.size++] = source.values[i];
+        }
+        source.statuses.forEach((status, count) -> target.statuses.merge(status, count, Long::sum));
+        target.failures += source.failures;
+        target.bytes += source.bytes;
+    }
+
+    // Weighted round table: each operation appears as many times as its weight
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.userservice.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Lookup and insert latency on a large users table, before and after scripts/partition_users.sql.
+ *
+ * Loads {@code --rows} generated users into an embedded PostgreSQL with the unpartitioned schema
+ * (global UNIQUE index on email), measures, converts the table with partition_users.sql and
+ * measures again. The statements are the ones the service runs on a cache miss:
+ * by email (email -> id, then the row by id; before: on users.email, after: on user_emails),
+ * by id, and a single-row insert in its own transaction. Also prints table and index sizes and how
+ * long VACUUM takes after 1% of the rows were updated, in total and for the longest single heap.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.PartitioningBenchmark \
+ *   -Dexec.args="--rows=10000000 --lookups=20000 --inserts=5000"
+ * </pre>
+ *
+ * {@code --search-indexes=false} skips the trigram indexes, which dominate load and insert time
+ * equally in both layouts. {@code --plan-cache-mode=force_custom_plan} compares against plans made
+ * per execution (pruned while planning) instead of the generic plans prepared statements end up with.
+ */
+public class PartitioningBenchmark {
+
+    // The users table as it was before partitioning
+    private static final String LEGACY_SCHEMA =
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm;"
+            + " CREATE TABLE users ("
+            + "  id UUID PRIMARY KEY DEFAULT gen_random_uuid(),"
+            + "  email VARCHAR(255) NOT NULL UNIQUE CONSTRAINT users_email_normalized CHECK (email = lower(btrim(email))),"
+            + "  name VARCHAR(255) NOT NULL,"
+            + "  status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE' CONSTRAINT users_status_valid CHECK (status IN ('ACTIVE', 'SUSPENDED')),"
+            + "  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+            + "  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+            + "  deleted_at TIMESTAMP);"
+            + " CREATE OR REPLACE FUNCTION update_updated_at_column() RETURNS TRIGGER AS $$"
+            + " BEGIN NEW.updated_at = CURRENT_TIMESTAMP; RETURN NEW; END; $$ language 'plpgsql';"
+            + " CREATE TRIGGER update_users_updated_at BEFORE UPDATE ON users"
+            + "  FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();";
+
+    private static final String LEGACY_INDEXES =
+            "CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;"
+            + " CREATE INDEX idx_users_active_recent ON users (updated_at DESC NULLS LAST)"
+            + "  WHERE status = 'ACTIVE' AND deleted_at IS NULL;";
+
+    private static final String SEARCH_INDEXES =
+            "CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops) WHERE deleted_at IS NULL;"
+            + " CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;";
+
+    private static final String USER_COLUMNS = "id, email, name, status, created_at, updated_at, deleted_at";
+
+    public static void main(String[] args) throws Exception {
+        long rows = Long.parseLong(option(args, "rows", "10000000"));
+        int lookups = Integer.parseInt(option(args, "lookups", "20000"));
+        int inserts = Integer.parseInt(option(args, "inserts", "5000"));
+        boolean searchIndexes = Boolean.parseBoolean(option(args, "search-indexes", "true"));
+        long chunk = 1_000_000;
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("shared_buffers", option(args, "shared-buffers", "512MB"))
+                .setServerConfig("maintenance_work_mem", "512MB")
+                .setServerConfig("max_wal_size", "8GB")
+                .setServerConfig("checkpoint_timeout", "30min")
+                .setServerConfig("plan_cache_mode", option(args, "plan-cache-mode", "auto"))
+                .start();
+             Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+
+            System.out.printf("Loading %d users (search indexes: %s)...%n", rows, searchIndexes);
+            long loadStart = System.nanoTime();
+            statement.execute(LEGACY_SCHEMA);
+            for (long from = 1; from <= rows; from += chunk) {
+                long to = Math.min(rows, from + chunk - 1);
+                // Same shape as real rows; 1% tombstoned
+                statement.execute("INSERT INTO users (email, name, deleted_at)"
+                        + " SELECT 'bench-' || g || '@example.com', 'Bench User ' || substr(md5(g::text), 1, 8),"
+                        + " CASE WHEN g % 100 = 0 THEN CURRENT_TIMESTAMP END"
+                        + " FROM generate_series(" + from + ", " + to + ") g");
+            }
+            statement.execute(LEGACY_INDEXES + (searchIndexes ? SEARCH_INDEXES : ""));
+            statement.execute("VACUUM ANALYZE users");
+            System.out.printf("Loaded in %.0f s%n%n", (System.nanoTime() - loadStart) / 1e9);
+
+            // Live users picked at random; ids stay the same across the migration
+            Random random = new Random(42);
+            List<String> emails = new ArrayList<>(lookups);
+            List<UUID> ids = new ArrayList<>(lookups);
+            try (PreparedStatement sample = connection.prepareStatement("SELECT id FROM users WHERE email = ?")) {
+                while (emails.size() < lookups) {
+                    long g = 1 + (long) (random.nextDouble() * rows);
+                    if (g % 100 == 0) {
+                        continue;
+                    }
+                    String email = "bench-" + g + "@example.com";
+                    sample.setString(1, email);
+                    try (ResultSet rs = sample.executeQuery()) {
+                        rs.next();
+                        emails.add(email);
+                        ids.add(rs.getObject(1, UUID.class));
+                    }
+                }
+            }
+
+            Result before = measure(connection, "SELECT id FROM users WHERE email = ? AND deleted_at IS NULL",
+                    emails, ids, inserts, "before");
+            Sizes beforeSizes = sizes(statement, false);
+            double[] beforeVacuum = vacuumAfterUpdates(statement, false);
+
+            System.out.println("Running scripts/partition_users.sql...");
+            long migrateStart = System.nanoTime();
+            connection.setAutoCommit(false);
+            statement.execute(Files.readString(Path.of("scripts/partition_users.sql")));
+            connection.commit();
+            connection.setAutoCommit(true);
+            System.out.printf("Migrated in %.0f s%n%n", (System.nanoTime() - migrateStart) / 1e9);
+            if (!searchIndexes) {
+                statement.execute("DROP INDEX idx_users_name_trgm; DROP INDEX idx_users_email_trgm");
+            }
+            statement.execute("VACUUM ANALYZE users");
+            statement.execute("VACUUM ANALYZE user_emails");
+
+            Result after = measure(connection, "SELECT user_id FROM user_emails WHERE email = ?",
+                    emails, ids, inserts, "after");
+            Sizes afterSizes = sizes(statement, true);
+            double[] afterVacuum = vacuumAfterUpdates(statement, true);
+
+            System.out.printf("%-34s %12s %12s%n", "", "before", "after (32 partitions)");
+            row("email lookup p50 / p99 ms", before.email, after.email);
+            row("id lookup p50 / p99 ms", before.id, after.id);
+            row("insert p50 / p99 ms", before.insert, after.insert);
+            System.out.printf("%-34s %12s %12s%n", "users heap (largest table)",
+                    mb(beforeSizes.largestHeap), mb(afterSizes.largestHeap));
+            System.out.printf("%-34s %12s %12s%n", "total incl. indexes (+user_emails)",
+                    mb(beforeSizes.total), mb(afterSizes.total));
+            System.out.printf("%-34s %12s %12s%n", "email unique index",
+                    mb(beforeSizes.emailIndex), mb(afterSizes.emailIndex));
+            // Autovacuum works per heap, so the longest single run is what blocks cleanup elsewhere
+            System.out.printf("%-34s %10.1f s %10.1f s%n", "VACUUM after 1% updates, all", beforeVacuum[0], afterVacuum[0]);
+            System.out.printf("%-34s %10.1f s %10.1f s%n", "  longest single heap", beforeVacuum[1], afterVacuum[1]);
+        }
+        System.exit(0);
+    }
+
+    private static final class Result {
+        final long[] email;
+        final long[] id;
+        final long[] insert;
+
+        Result(long[] email, long[] id, long[] insert) {
+            this.email = email;
+            this.id = id;
+            this.insert = insert;
+        }
+    }
+
+    private static final class Sizes {
+        final long largestHeap;
+        final long total;
+        final long emailIndex;
+
+        Sizes(long largestHeap, long total, long emailIndex) {
+            this.largestHeap = largestHeap;
+            this.total = total;
+            this.emailIndex = emailIndex;
+        }
+    }
+
+    private static Result measure(Connection connection, String emailToIdSql, List<String> emails, List<UUID> ids,
+                                  int inserts, String phase) throws Exception {
+        long[] email = new long[emails.size()];
+        long[] id = new long[ids.size()];
+        long[] insert = new long[inserts];
+        try (PreparedStatement byEmail = connection.prepareStatement(emailToIdSql);
+             PreparedStatement byId = connection.prepareStatement(
+                     "SELECT " + USER_COLUMNS + " FROM users WHERE id = ? AND deleted_at IS NULL");
+             PreparedStatement create = connection.prepareStatement(
+                     "INSERT INTO users (email, name) VALUES (?, ?)")) {
+            // One untimed pass so both layouts start with the same cache state
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < emails.size(); i++) {
+                    long start = System.nanoTime();
+                    byEmail.setString(1, emails.get(i));
+                    UUID found;
+                    try (ResultSet rs = byEmail.executeQuery()) {
+                        rs.next();
+                        found = rs.getObject(1, UUID.class);
+                    }
+                    byId.setObject(1, found);
+                    consume(byId);
+                    email[i] = System.nanoTime() - start;
+                }
+                for (int i = 0; i < ids.size(); i++) {
+                    long start = System.nanoTime();
+                    byId.setObject(1, ids.get(i));
+                    consume(byId);
+                    id[i] = System.nanoTime() - start;
+                }
+            }
+            for (int i = 0; i < inserts; i++) {
+                create.setString(1, "new-" + phase + "-" + i + "@example.com");
+                create.setString(2, "New User " + i);
+                long start = System.nanoTime();
+                create.executeUpdate();
+                insert[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(email);
+        Arrays.sort(id);
+        Arrays.sort(insert);
+        return new Result(email, id, insert);
+    }
+
+    private static void consume(PreparedStatement statement) throws Exception {
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("Row not found");
+            }
+        }
+    }
+
+    private static Sizes sizes(Statement statement, boolean partitioned) throws Exception {
+        String query = partitioned
+                ? "SELECT (SELECT max(pg_relation_size(relid)) FROM pg_partition_tree('users') WHERE isleaf),"
+                + " (SELECT sum(pg_total_relation_size(relid)) FROM pg_partition_tree('users') WHERE isleaf)"
+                + " + pg_total_relation_size('user_emails'),"
+                + " pg_relation_size('user_emails_pkey')"
+                : "SELECT pg_relation_size('users'), pg_total_relation_size('users'), pg_relation_size('users_email_key')";
+        try (ResultSet rs = statement.executeQuery(query)) {
+            rs.next();
+            return new Sizes(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        }
+    }
+
+    // Seconds for all heaps and for the longest one
+    private static double[] vacuumAfterUpdates(Statement statement, boolean partitioned) throws Exception {
+        statement.execute("UPDATE users SET name = name || '.' WHERE abs(hashtext(id::text)) % 100 = 0");
+        List<String> heaps = new ArrayList<>();
+        if (partitioned) {
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT relid::regclass::text FROM pg_partition_tree('users') WHERE isleaf")) {
+                while (rs.next()) {
+                    heaps.add(rs.getString(1));
+                }
+            }
+        } else {
+            heaps.add("users");
+        }
+        double total = 0;
+        double longest = 0;
+        for (String heap : heaps) {
+            long start = System.nanoTime();
+            statement.execute("VACUUM " + heap);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            total += seconds;
+            longest = Math.max(longest, seconds);
+        }
+        return new double[] {total, longest};
+    }
+
+    private static void row(String label, long[] before, long[] after) {
+        System.out.printf("%-34s %5.3f/%6.3f %5.3f/%6.3f%n", label,
+                percentile(before, 0.50), percentile(before, 0.99), percentile(after, 0.50), percentile(after, 0.99));
+    }
+
+    private static String mb(long bytes) {
+        return (bytes / (1024 * 1024)) + " MB";
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
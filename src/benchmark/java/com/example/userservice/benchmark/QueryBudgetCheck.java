@@ -0,0 +1,158 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Query budget gate: starts the service against local stand-ins (see LoadTestEnvironment), calls
+ * each endpoint twice (second-level cache cold, then warm) and prints the JDBC statements it ran,
+ * read from the db entry of the Server-Timing header. Exits with status 1 when any request went
+ * over its budget (query-budget.* in application.yml, reported as query.budget.exceeded).
+ *
+ * The listing is requested at two page sizes; a statement count that grows with the page size
+ * is a per-row query.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.QueryBudgetCheck
+ * </pre>
+ *
+ * Add {@code --jar=target/user-service-1.0.0.jar} to check the packaged service, and
+ * {@code --app-args="--query-budget.default-budget=2"} to pass it options.
+ */
+public class QueryBudgetCheck {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(option(args, "port", "18081"));
+        int grpcPort = Integer.parseInt(option(args, "grpc-port", "19090"));
+        String jar = option(args, "jar", null);
+        String appArgs = option(args, "app-args", "");
+        int exitCode;
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            environment.startDependencies(500);
+            List<String> serviceArgs = new ArrayList<>(List.of("--timing.sample-rate=0"));
+            if (!appArgs.isBlank()) {
+                serviceArgs.addAll(Arrays.asList(appArgs.trim().split("\\s+")));
+            }
+            environment.startService(jar, port, grpcPort, serviceArgs, Duration.ofMinutes(3));
+
+            LoadTestEnvironment.SeedUser user = environment.users().get(1);
+            LoadTestEnvironment.SeedUser admin = environment.users().get(0);
+            String base = "http://localhost:" + port + "/api/users";
+            String email = URLEncoder.encode(user.email, StandardCharsets.UTF_8);
+
+            Map<String, HttpRequest.Builder> requests = new LinkedHashMap<>();
+            requests.put("gateway lookup", HttpRequest.newBuilder(URI.create(base + "/gateway/lookup/" + email)).GET());
+            requests.put("me", asUser(HttpRequest.newBuilder(URI.create(base + "/me")), user, "USER").GET());
+            requests.put("by id", asUser(HttpRequest.newBuilder(URI.create(base + "/" + user.id)), user, "USER").GET());
+            requests.put("by email", asUser(HttpRequest.newBuilder(URI.create(base + "/email/" + email)), user, "USER").GET());
+            requests.put("list size=10", asUser(HttpRequest.newBuilder(URI.create(base + "?page=0&size=10")), admin, "ADMIN").GET());
+            requests.put("list size=100", asUser(HttpRequest.newBuilder(URI.create(base + "?page=0&size=100")), admin, "ADMIN").GET());
+            requests.put("search", asUser(HttpRequest.newBuilder(URI.create(base + "/search?q=load-1")), admin, "ADMIN").GET());
+            requests.put("update", asUser(HttpRequest.newBuilder(URI.create(base + "/" + user.id)), user, "USER")
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Budget Check\"}")));
+
+            HttpClient client = HttpClient.newHttpClient();
+            System.out.printf("%-16s %6s %12s %12s%n", "endpoint", "status", "cold stmts", "warm stmts");
+            for (Map.Entry<String, HttpRequest.Builder> entry : requests.entrySet()) {
+                HttpRequest request = entry.getValue().header("X-Request-Timing", "1").build();
+                List<Integer> counts = new ArrayList<>();
+                int status = 0;
+                for (int i = 0; i < 2; i++) {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    status = response.statusCode();
+                    counts.add(statements(response.headers().firstValue("Server-Timing").orElse("")));
+                }
+                System.out.printf("%-16s %6d %12d %12d%n", entry.getKey(), status, counts.get(0), counts.get(1));
+            }
+            HttpRequest signup = HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .header("X-Request-Timing", "1")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"budget-" + UUID.randomUUID()
+                            + "@example.com\",\"name\":\"Budget Check\"}"))
+                    .build();
+            HttpResponse<Void> created = client.send(signup, HttpResponse.BodyHandlers.discarding());
+            System.out.printf("%-16s %6d %12d %12s%n", "create", created.statusCode(),
+                    statements(created.headers().firstValue("Server-Timing").orElse("")), "-");
+
+            List<String> exceeded = exceededRoutes(client, port, admin);
+            if (exceeded.isEmpty()) {
+                System.out.println("All requests within their query budgets");
+                exitCode = 0;
+            } else {
+                System.out.println("Query budget exceeded by: " + String.join(", ", exceeded));
+                exitCode = 1;
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    // Server-Timing "db;dur=1.2;desc=\"3 calls\"" -> 3; "db;dur=1.2" -> 1; no db entry -> 0
+    private static int statements(String serverTiming) {
+        for (String metric : serverTiming.split(",")) {
+            String[] parts = metric.trim().split(";");
+            if (!parts[0].equals("db")) {
+                continue;
+            }
+            for (String part : parts) {
+                if (part.startsWith("desc=\"")) {
+                    return Integer.parseInt(part.substring(6, part.indexOf(' ')));
+                }
+            }
+            return 1;
+        }
+        return 0;
+    }
+
+    private static List<String> exceededRoutes(HttpClient client, int port, LoadTestEnvironment.SeedUser admin) throws Exception {
+        HttpResponse<String> response = client.send(asUser(HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + port + "/actuator/metrics/query.budget.exceeded")), admin, "ADMIN").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<String> routes = new ArrayList<>();
+        // 404 until the first budget is exceeded
+        if (response.statusCode() != 200) {
+            return routes;
+        }
+        for (JsonNode tag : MAPPER.readTree(response.body()).path("availableTags")) {
+            if (tag.path("tag").asText().equals("uri")) {
+                tag.path("values").forEach(value -> routes.add(value.asText()));
+            }
+        }
+        return routes;
+    }
+
+    private static HttpRequest.Builder asUser(HttpRequest.Builder builder, LoadTestEnvironment.SeedUser user, String roles) {
+        return builder
+                .header("X-User-Id", user.id.toString())
+                .header("X-User-Email", user.email)
+                .header("X-User-Roles", roles);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.admission.TokenBucketRateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of TokenBucketRateLimiter.tryAcquire under contention, in-process (no HTTP).
+ * Scenarios: every thread on one hot key (worst-case CAS contention), one key per thread,
+ * random keys out of a large caller population, and a hot key that is already over its limit.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.RateLimiterContentionBenchmark \
+ *   -Dexec.args="--threads=1,4,16,64 --seconds=3 --keys=100000"
+ * </pre>
+ */
+public class RateLimiterContentionBenchmark {
+
+    // Effectively unlimited, so every call goes through the CAS path
+    private static final TokenBucketRateLimiter.Limit UNLIMITED = new TokenBucketRateLimiter.Limit(1e12, 1_000_000);
+    private static final TokenBucketRateLimiter.Limit EXHAUSTED = new TokenBucketRateLimiter.Limit(1, 1);
+
+    public static void main(String[] args) throws Exception {
+        String[] threadCounts = option(args, "threads", "1,4,16,64").split(",");
+        int seconds = Integer.parseInt(option(args, "seconds", "3"));
+        int keyCount = Integer.parseInt(option(args, "keys", "100000"));
+
+        String[] keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "id:" + UUID.randomUUID();
+        }
+
+        System.out.printf("Rate limiter contention benchmark: %ds per run, %d keys%n", seconds, keyCount);
+        System.out.printf("%-22s %8s %14s %10s%n", "scenario", "threads", "ops/s", "ns/op");
+        for (String value : threadCounts) {
+            int threads = Integer.parseInt(value.trim());
+            TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+
+            run("hot key", threads, seconds, thread -> limiter.tryAcquire("id:hot", UNLIMITED));
+            run("key per thread", threads, seconds, thread -> limiter.tryAcquire(keys[thread % keyCount], UNLIMITED));
+            run("random keys", threads, seconds,
+                    thread -> limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keyCount)], UNLIMITED));
+            limiter.tryAcquire("id:over", EXHAUSTED);
+            run("hot key, rejecting", threads, seconds, thread -> limiter.tryAcquire("id:over", EXHAUSTED));
+        }
+    }
+
+    private interface Op {
+        long invoke(int thread);
+    }
+
+    private static void run(String label, int threads, int seconds, Op op) throws InterruptedException {
+        // Short warm-up so the loop is compiled before measuring
+        measure(threads, 1, op);
+        long ops = measure(threads, seconds, op);
+        double opsPerSecond = ops / (double) seconds;
+        System.out.printf("%-22s %8d %14.0f %10.1f%n", label, threads, opsPerSecond, threads * 1e9 / opsPerSecond);
+    }
+
+    private static long measure(int threads, int seconds, Op op) throws InterruptedException {
+        LongAdder total = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] sink = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long count = 0;
+                long acc = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < end) {
+                    acc += op.invoke(thread);
+                    count++;
+                }
+                sink[thread] = acc;
+                total.add(count);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return total.sum();
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
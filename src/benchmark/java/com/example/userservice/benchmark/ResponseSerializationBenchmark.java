@@ -0,0 +1,121 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.response.ErrorResponse;
+import com.example.userservice.dto.response.UserIdResponse;
+import com.example.userservice.model.UserStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing REST bodies the way the message converters do (new writer per call, reflective
+ * accessors) against a writer built once, with and without Blackbird. Bodies are the gateway lookup
+ * reply, a user profile, and a 404 error as an ad-hoc Map versus the typed ErrorResponse.
+ *
+ * Prints the serialized size of each body first; add {@code -prof gc} for allocated bytes per call.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.ResponseSerializationBenchmark \
+ *   -Dexec.args="-prof gc"
+ * </pre>
+ *
+ * End to end, compare {@code serviceCpuMsPerRequest} and {@code bytesPerResponse} in the
+ * LoadTestHarness report with and without {@code --app-args=--jackson.blackbird.enabled=false}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"userId", "userDto", "errorMap", "errorTyped"})
+    public String body;
+
+    private Object value;
+    private ObjectMapper reflective;
+    private ObjectWriter prebuiltReflective;
+    private ObjectWriter prebuiltBlackbird;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = mapper(false);
+        for (String name : new String[] {"userId", "userDto", "errorMap", "errorTyped"}) {
+            System.out.printf("%-10s %4d bytes  %s%n", name, mapper.writeValueAsBytes(body(name)).length,
+                    mapper.writeValueAsString(body(name)));
+        }
+        JmhRunner.run(ResponseSerializationBenchmark.class, args);
+    }
+
+    @Setup
+    public void setUp() {
+        value = body(body);
+        reflective = mapper(false);
+        prebuiltReflective = reflective.writerFor(value.getClass());
+        prebuiltBlackbird = mapper(true).writerFor(value.getClass());
+    }
+
+    /** What MappingJackson2HttpMessageConverter does per response: a fresh writer from the mapper. */
+    @Benchmark
+    public byte[] converterWriter() throws Exception {
+        return reflective.writer().writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] prebuiltWriter() throws Exception {
+        return prebuiltReflective.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] prebuiltWriterBlackbird() throws Exception {
+        return prebuiltBlackbird.writeValueAsBytes(value);
+    }
+
+    // Same configuration as the application's ObjectMapper bean
+    private static ObjectMapper mapper(boolean blackbird) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+
+    private static Object body(String name) {
+        UUID id = UUID.fromString("3f2b8c9e-6d1a-4e7b-9c2f-1a8d5e4b7c60");
+        switch (name) {
+            case "userId":
+                return new UserIdResponse(id, "load-4711@example.com");
+            case "userDto":
+                UserDto user = new UserDto(id, "load-4711@example.com", "Load User 4711");
+                user.setStatus(UserStatus.ACTIVE);
+                return user;
+            case "errorMap":
+                return Map.of("error", "User not found", "id", id.toString());
+            case "errorTyped":
+                return ErrorResponse.forId("User not found", id);
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
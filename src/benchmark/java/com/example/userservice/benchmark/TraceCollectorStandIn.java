@@ -0,0 +1,82 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+
+/**
+ * Local stand-in for an OpenTelemetry collector: accepts OTLP/HTTP JSON on /v1/traces and prints
+ * one line per span, children indented under their request span. Start the service with
+ * {@code --timing.export.enabled=true} and send requests with {@code X-Request-Timing: 1} (or a
+ * sampled traceparent) to see their stage spans.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java \
+ *   -Dexec.mainClass=com.example.userservice.benchmark.TraceCollectorStandIn \
+ *   -Dexec.args="--port=4318"
+ * </pre>
+ */
+public class TraceCollectorStandIn {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(option(args, "port", "4318"));
+        start(port, System.out::println);
+        System.out.printf("Collecting OTLP/HTTP JSON traces on http://localhost:%d/v1/traces%n", port);
+        Thread.currentThread().join();
+    }
+
+    static HttpServer start(int port, Consumer<String> out) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/v1/traces", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                print(MAPPER.readTree(body), out);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (IOException e) {
+                exchange.sendResponseHeaders(400, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static void print(JsonNode request, Consumer<String> out) {
+        for (JsonNode resourceSpans : request.path("resourceSpans")) {
+            for (JsonNode scopeSpans : resourceSpans.path("scopeSpans")) {
+                for (JsonNode span : scopeSpans.path("spans")) {
+                    long start = span.path("startTimeUnixNano").asLong();
+                    long end = span.path("endTimeUnixNano").asLong();
+                    boolean child = span.path("kind").asInt() != 2;
+                    StringBuilder attributes = new StringBuilder();
+                    for (JsonNode attribute : span.path("attributes")) {
+                        JsonNode value = attribute.path("value");
+                        attributes.append(' ').append(attribute.path("key").asText()).append('=')
+                                .append(value.has("stringValue") ? value.path("stringValue").asText()
+                                        : value.path("intValue").asText());
+                    }
+                    out.accept(String.format("%s %-32s %9.3f ms  trace=%s%s",
+                            child ? "  -" : "span", span.path("name").asText(), (end - start) / 1_000_000.0,
+                            span.path("traceId").asText(), attributes));
+                }
+            }
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
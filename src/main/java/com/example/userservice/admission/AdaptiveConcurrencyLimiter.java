@@ -0,0 +1,130 @@
+package com.example.userservice.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limiter: the limit follows the ratio between the long-term (no-load)
+ * latency and the latency of the most recent window. While latency stays near its baseline the
+ * limit grows by a small queue allowance; when latency rises the limit shrinks proportionally
+ * (bounded to halving per window), and failures back it off multiplicatively (AIMD).
+ *
+ * Admission is a CAS on the in-flight counter; the limit is recalculated once per window of samples.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final double longWindowAlpha;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRttNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double rttTolerance, double smoothing, int windowSize,
+                                      int longWindows, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.windowSize = windowSize;
+        this.longWindowAlpha = 2.0 / (longWindows + 1);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return true if the caller may proceed; it must then call {@link #release} exactly once
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos time the request held its slot
+     * @param dropped  whether it failed in a way that signals overload (5xx, timeout)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        synchronized (this) {
+            windowRttSumNanos += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+            windowDropped |= dropped;
+            if (windowSamples >= windowSize) {
+                updateLimit();
+            }
+        }
+    }
+
+    private void updateLimit() {
+        double shortRtt = (double) windowRttSumNanos / windowSamples;
+        boolean dropped = windowDropped;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - longWindowAlpha) + shortRtt * longWindowAlpha;
+        // Long-term baseline drifted far above current latency: pull it back so the limit can recover
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * backoffRatio;
+        } else if (maxInFlight * 2 < current) {
+            // Demand is well below the limit; latency says nothing about capacity
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+            double queueSize = Math.sqrt(current);
+            next = current * gradient + queueSize;
+            next = current * (1 - smoothing) + next * smoothing;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Long-term latency baseline in milliseconds (0 until the first window completes).
+     */
+    public synchronized double getBaselineLatencyMillis() {
+        return longRttNanos / 1_000_000.0;
+    }
+}
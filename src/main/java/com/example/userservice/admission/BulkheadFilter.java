@@ -0,0 +1,109 @@
+package com.example.userservice.admission;
+
+import com.example.userservice.warmup.StartupWarmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds requests with 503 as soon as their endpoint class is at its concurrency limit,
+ * instead of letting them queue for Tomcat threads and DB connections.
+ * Placed after RateLimitFilter, so one caller's burst is limited before it consumes a slot.
+ * An async request keeps its slot until it completes, not just until its first dispatch returns.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final byte[] SERVER_BUSY_BODY = "{\"error\":\"Server busy, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final EndpointBulkheads bulkheads;
+
+    public BulkheadFilter(EndpointBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkheads.isEnabled() || StartupWarmup.isWarmupRequest(request) || EndpointClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        AdaptiveConcurrencyLimiter limiter = bulkheads.limiter(endpointClass);
+        if (!limiter.tryAcquire()) {
+            bulkheads.recordRejected(endpointClass);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(SERVER_BUSY_BODY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new SlotRelease(limiter, start));
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    // Releases an async request's slot exactly once, whichever way it ends
+    private static final class SlotRelease implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SlotRelease(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            release(response == null || response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Another async cycle of the same request; the slot stays held until it completes
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.userservice.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Concurrency budgets per endpoint class (bulkhead.* in application.yml).
+ * Limits start at initial-limit and adapt between min-limit and max-limit with observed latency.
+ */
+@Component
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /** Latency may rise to this multiple of the baseline before the limit shrinks. */
+    private double rttTolerance = 1.5;
+
+    /** Weight of each new limit estimate (0..1). */
+    private double smoothing = 0.2;
+
+    /** Completed requests per limit update. */
+    private int windowSize = 20;
+
+    /** Windows averaged into the no-load latency baseline. */
+    private int longWindows = 50;
+
+    /** Multiplicative decrease when a window saw 5xx responses. */
+    private double backoffRatio = 0.9;
+
+    private Map<EndpointClass, ClassLimit> classes = new EnumMap<>(EndpointClass.class);
+
+    public static class ClassLimit {
+
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 50;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getLongWindows() {
+        return longWindows;
+    }
+
+    public void setLongWindows(int longWindows) {
+        this.longWindows = longWindows;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Map<EndpointClass, ClassLimit> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(Map<EndpointClass, ClassLimit> classes) {
+        this.classes = classes;
+    }
+}
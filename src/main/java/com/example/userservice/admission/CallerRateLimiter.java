@@ -0,0 +1,178 @@
+package com.example.userservice.admission;
+
+import com.example.userservice.security.UserAuthentication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the caller identity and role limit for a request and applies the caller's token bucket.
+ * Identity is the X-User-Id set by HeaderBasedAuthenticationFilter, then the email, then the client IP.
+ * The client IP is the socket peer address, or the last X-Forwarded-For entry not added by one of
+ * rate-limit.trusted-proxies; the forwarded-header-rewritten remote address is client controlled.
+ */
+@Component
+public class CallerRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallerRateLimiter.class);
+
+    private static final String ANONYMOUS = "anonymous";
+    private static final String AUTHENTICATED = "authenticated";
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+    private final Map<String, NamedLimit> roleLimits = new HashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+    private NamedLimit anonymousLimit;
+    private NamedLimit authenticatedLimit;
+
+    private static final class NamedLimit {
+        final String name;
+        final TokenBucketRateLimiter.Limit limit;
+
+        NamedLimit(String name, RateLimitProperties.LimitProperties properties) {
+            this.name = name;
+            this.limit = new TokenBucketRateLimiter.Limit(properties.getRequestsPerSecond(), properties.getBurst());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        anonymousLimit = new NamedLimit(ANONYMOUS, properties.getAnonymous());
+        authenticatedLimit = new NamedLimit(AUTHENTICATED, properties.getAuthenticated());
+        properties.getRoles().forEach((role, limit) -> roleLimits.put("ROLE_" + role, new NamedLimit(role, limit)));
+        for (String proxy : properties.getTrustedProxies()) {
+            if (!proxy.isBlank()) {
+                trustedProxies.add(new IpAddressMatcher(proxy.trim()));
+            }
+        }
+        Gauge.builder("admission.rate_limit.buckets", limiter, TokenBucketRateLimiter::size)
+                .description("Active per-caller token buckets")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * @return 0 if the request is admitted, otherwise the nanoseconds until the caller may retry
+     */
+    public long admit(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key;
+        NamedLimit limit;
+        if (authentication instanceof UserAuthentication) {
+            UserAuthentication user = (UserAuthentication) authentication;
+            key = user.getUserId() != null ? "id:" + user.getUserId() : "email:" + user.getEmail();
+            limit = limitFor(user);
+        } else {
+            key = "ip:" + clientAddress(request);
+            limit = anonymousLimit;
+        }
+
+        long retryAfterNanos = limiter.tryAcquire(key, limit.limit);
+        if (retryAfterNanos > 0) {
+            rejections.computeIfAbsent(limit.name, name -> Counter.builder("admission.rate_limit.rejected")
+                    .description("Requests rejected with 429 by the per-caller rate limit")
+                    .tag("limit", name)
+                    .register(meterRegistry)).increment();
+            logger.debug("Rate limited {} ({} limit)", key, limit.name);
+        }
+        return retryAfterNanos;
+    }
+
+    /**
+     * Walks X-Forwarded-For from the right while the hop was added by a trusted proxy.
+     * Entries left of the first untrusted hop are written by the client and ignored.
+     */
+    private String clientAddress(HttpServletRequest request) {
+        String address = socketAddress(request);
+        if (trustedProxies.isEmpty() || !isTrustedProxy(address)) {
+            return address;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders("X-Forwarded-For"))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            address = hops.get(i);
+            if (!isTrustedProxy(address)) {
+                return address;
+            }
+        }
+        return address;
+    }
+
+    // ForwardedHeaderFilter (server.forward-headers-strategy) wraps the request and rewrites
+    // getRemoteAddr() from X-Forwarded-For; the container request underneath keeps the peer address
+    private static String socketAddress(ServletRequest request) {
+        while (request instanceof ServletRequestWrapper) {
+            request = ((ServletRequestWrapper) request).getRequest();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher matcher : trustedProxies) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private NamedLimit limitFor(Authentication authentication) {
+        NamedLimit best = null;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            NamedLimit candidate = roleLimits.get(authority.getAuthority());
+            if (candidate != null && (best == null
+                    || candidate.limit.emissionIntervalNanos < best.limit.emissionIntervalNanos)) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : authenticatedLimit;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = limiter.evictIdle(properties.getIdleEviction().toNanos());
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate-limit buckets, {} remaining", evicted, limiter.size());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.userservice.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One adaptive concurrency limiter per endpoint class, with limit/in-flight gauges and a shed counter.
+ */
+@Component
+public class EndpointBulkheads {
+
+    @Autowired
+    private BulkheadProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    void init() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            BulkheadProperties.ClassLimit classLimit =
+                    properties.getClasses().getOrDefault(endpointClass, new BulkheadProperties.ClassLimit());
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    classLimit.getInitialLimit(), classLimit.getMinLimit(), classLimit.getMaxLimit(),
+                    properties.getRttTolerance(), properties.getSmoothing(), properties.getWindowSize(),
+                    properties.getLongWindows(), properties.getBackoffRatio());
+            limiters.put(endpointClass, limiter);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("admission.bulkhead.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("admission.bulkhead.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently holding a bulkhead slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(endpointClass, Counter.builder("admission.bulkhead.rejected")
+                    .description("Requests shed with 503 because the endpoint class was at its limit")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    public void recordRejected(EndpointClass endpointClass) {
+        rejected.get(endpointClass).increment();
+    }
+}
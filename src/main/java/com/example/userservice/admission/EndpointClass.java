@@ -0,0 +1,50 @@
+package com.example.userservice.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint classes with separate concurrency budgets, so slow admin scans or signup bursts
+ * cannot take the request threads and DB connections the gateway lookup needs.
+ */
+public enum EndpointClass {
+
+    /** GET /api/users/gateway/lookup/{email} - latency critical, mostly served from cache */
+    GATEWAY_LOOKUP,
+
+    /** Single-user reads: /{id}, /me, /email/{email} */
+    READ,
+
+    /** Signup, profile updates and deletes */
+    WRITE,
+
+    /** Admin listing and search, suspend/activate, snapshots, bulk deletes, test events */
+    ADMIN;
+
+    private static final String BASE = "/api/users";
+
+    /**
+     * @return the class of a /api/users request, or null for paths without a budget (probes, docs, actuator)
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith(BASE)) {
+            return null;
+        }
+        String path = uri.substring(BASE.length());
+        String method = request.getMethod();
+
+        if (path.startsWith("/gateway/lookup/")) {
+            return GATEWAY_LOOKUP;
+        }
+        if (path.equals("/health")) {
+            return null;
+        }
+        if (path.isEmpty() || path.equals("/")) {
+            return "GET".equals(method) ? ADMIN : WRITE;
+        }
+        if (path.equals("/search") || path.startsWith("/snapshot") || path.equals("/bulk-delete") || path.equals("/test-event") || path.endsWith("/suspend") || path.endsWith("/activate")) {
+            return ADMIN;
+        }
+        return "GET".equals(method) ? READ : WRITE;
+    }
+}
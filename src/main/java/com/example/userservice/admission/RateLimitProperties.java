@@ -0,0 +1,128 @@
+package com.example.userservice.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-caller rate limits (rate-limit.* in application.yml).
+ * Role keys are matched against the caller's authorities without the ROLE_ prefix;
+ * a caller with several roles gets the most generous limit among them.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Buckets untouched for this long are dropped (they would be full anyway). */
+    private Duration idleEviction = Duration.ofMinutes(5);
+
+    /** Ant-style paths that are never limited (probes, gateway-internal lookups). */
+    private List<String> excludePaths = new ArrayList<>();
+
+    /**
+     * Proxies (IP addresses or CIDR ranges) whose X-Forwarded-For entries are trusted when keying
+     * anonymous callers. Empty means the socket peer address is used as is.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /** Callers without identity headers, keyed by client IP. */
+    private LimitProperties anonymous = new LimitProperties(10, 20);
+
+    /** Authenticated callers whose roles have no entry in roles. */
+    private LimitProperties authenticated = new LimitProperties(50, 100);
+
+    private Map<String, LimitProperties> roles = new LinkedHashMap<>();
+
+    public static class LimitProperties {
+
+        private double requestsPerSecond;
+        private int burst;
+
+        public LimitProperties() {
+        }
+
+        public LimitProperties(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public List<String> getExcludePaths() {
+        return excludePaths;
+    }
+
+    public void setExcludePaths(List<String> excludePaths) {
+        this.excludePaths = excludePaths;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public LimitProperties getAnonymous() {
+        return anonymous;
+    }
+
+    public void setAnonymous(LimitProperties anonymous) {
+        this.anonymous = anonymous;
+    }
+
+    public LimitProperties getAuthenticated() {
+        return authenticated;
+    }
+
+    public void setAuthenticated(LimitProperties authenticated) {
+        this.authenticated = authenticated;
+    }
+
+    public Map<String, LimitProperties> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Map<String, LimitProperties> roles) {
+        this.roles = roles;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userservice.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free per-key token buckets using the generic cell rate algorithm (GCRA).
+ * Each bucket is a single AtomicLong holding the theoretical arrival time (TAT) of the
+ * next request, so acquiring is one CAS on an uncontended key and never takes a lock.
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * Sustained rate and burst size of one bucket.
+     */
+    public static final class Limit {
+        final long emissionIntervalNanos;
+        final long burstToleranceNanos;
+        final int burst;
+
+        public Limit(double requestsPerSecond, int burst) {
+            if (requestsPerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("requestsPerSecond must be > 0 and burst >= 1");
+            }
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+            this.burstToleranceNanos = emissionIntervalNanos * burst;
+            this.burst = burst;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public TokenBucketRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, Limit limit) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // New callers start with a full bucket (TAT not in the future)
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + limit.emissionIntervalNanos;
+            long excess = newTat - now - limit.burstToleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have been idle (fully refilled) for longer than maxIdleNanos.
+     * A caller racing with the removal at worst gets one extra refill, never a stricter limit.
+     */
+    public int evictIdle(long maxIdleNanos) {
+        long cutoff = clock.getAsLong() - maxIdleNanos;
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> tat.get() < cutoff);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.userservice.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP/2 stream limits for the embedded Tomcat. With server.http2.enabled and no TLS, Spring Boot
+ * adds cleartext HTTP/2 (h2c, by upgrade or prior knowledge) on the HTTP/1.1 port; Tomcat's defaults
+ * only run 20 streams of a connection at a time, which throttles a gateway that multiplexes all
+ * lookups over a few connections. Admission (rate limits, bulkheads) still applies per request.
+ */
+@Configuration
+public class HttpServerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpServerConfig.class);
+
+    @Value("${http2.max-concurrent-streams:200}")
+    private int maxConcurrentStreams;
+
+    @Value("${http2.keep-alive-timeout-ms:60000}")
+    private long keepAliveTimeoutMillis;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2Customizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol) {
+                    Http2Protocol http2 = (Http2Protocol) protocol;
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                    http2.setKeepAliveTimeout(keepAliveTimeoutMillis);
+                    logger.info("HTTP/2 (h2c) enabled on port {}: max {} concurrent streams per connection",
+                            connector.getPort(), maxConcurrentStreams);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.request.CreateUserRequest;
+import com.example.userservice.dto.request.UpdateUserRequest;
+import com.example.userservice.dto.response.ErrorResponse;
+import com.example.userservice.dto.response.MessageResponse;
+import com.example.userservice.dto.response.PublicUserResponse;
+import com.example.userservice.dto.response.UserIdResponse;
+import com.example.userservice.dto.response.UserProfileResponse;
+import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.UserActivatedEvent;
+import com.example.userservice.event.model.UserCreatedEvent;
+import com.example.userservice.event.model.UserDeletedEvent;
+import com.example.userservice.event.model.UserProfileEvent;
+import com.example.userservice.event.model.UserSuspendedEvent;
+import com.example.userservice.event.model.UserUpdatedEvent;
+import com.example.userservice.grpc.proto.LookupByEmailRequest;
+import com.example.userservice.grpc.proto.UserIdReply;
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEmail;
+import com.example.userservice.security.HeaderBasedAuthenticationFilter;
+import com.example.userservice.timing.TimingSessionEventListener;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * GraalVM native-image metadata for types that are only reached reflectively
+ * (mvn -Pnative). Ignored on the JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.UserServiceRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Event subtypes are only named in @JsonSubTypes and serialized by Kafka's JsonSerializer
+            bindingHints.registerReflectionHints(hints.reflection(),
+                    BaseUserEvent.class, UserCreatedEvent.class, UserDeletedEvent.class,
+                    UserSuspendedEvent.class, UserActivatedEvent.class, UserUpdatedEvent.class,
+                    UserProfileEvent.class);
+
+            // Controller methods return ResponseEntity<?>, so AOT cannot infer the body types
+            bindingHints.registerReflectionHints(hints.reflection(),
+                    UserDto.class, CreateUserRequest.class, UpdateUserRequest.class,
+                    PublicUserResponse.class, UserIdResponse.class, UserProfileResponse.class,
+                    ErrorResponse.class, MessageResponse.class);
+
+            // Hibernate reads and writes entity fields reflectively (no bytecode enhancement)
+            for (Class<?> entity : new Class<?>[] { User.class, UserEmail.class }) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // Kafka instantiates (de)serializers by class name from the client config
+            hints.reflection().registerType(JsonSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(StringSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(StringDeserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // datasource-proxy wraps JDBC objects in JDK dynamic proxies (StatementAccountingConfig)
+            for (Class<?> jdbcType : new Class<?>[] { Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class }) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+
+            // Hibernate creates the session listener by class name (hibernate.session.events.auto)
+            hints.reflection().registerType(TimingSessionEventListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Created with new in SecurityConfig; GenericFilterBean binds init parameters as bean properties
+            hints.reflection().registerType(HeaderBasedAuthenticationFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Protobuf field accessor tables look up the generated getters/setters by name
+            for (Class<?> message : new Class<?>[] { LookupByEmailRequest.class, UserIdReply.class }) {
+                hints.reflection().registerType(message, MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.reflection().registerTypeIfPresent(classLoader, message.getName() + "$Builder",
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // JCache provider is looked up by name; its regions come from application.conf (Typesafe Config)
+            hints.reflection().registerTypeIfPresent(classLoader,
+                    "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("application.conf");
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package com.example.userservice.config;
 
+import com.example.userservice.admission.BulkheadFilter;
+import com.example.userservice.admission.CallerRateLimiter;
+import com.example.userservice.admission.EndpointBulkheads;
+import com.example.userservice.admission.RateLimitFilter;
+import com.example.userservice.admission.RateLimitProperties;
 import com.example.userservice.security.HeaderBasedAuthenticationFilter;
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
+import com.example.userservice.warmup.StartupWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,10 +21,13 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Configuration
@@ -24,11 +36,20 @@ public class SecurityConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
+    @Autowired
+    private CallerRateLimiter callerRateLimiter;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private EndpointBulkheads endpointBulkheads;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             // CSRF 비활성화 - 서비스간 통신을 위해
-            .csrf().disable()
+            .csrf(csrf -> csrf.disable())
             
             // 세션 관리 - STATELESS (마이크로서비스는 상태 없음)
             .sessionManagement(session -> session
@@ -38,37 +59,54 @@ public class SecurityConfig {
             // 헤더 기반 인증 필터 추가
             .addFilterBefore(new HeaderBasedAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
             
+            // 호출자별 요청 제한 (인증 헤더 처리 직후, 429 + Retry-After)
+            .addFilterAfter(new RateLimitFilter(callerRateLimiter, rateLimitProperties.getExcludePaths()),
+                HeaderBasedAuthenticationFilter.class)
+            
+            // 엔드포인트 클래스별 동시 처리 한도 (초과 시 즉시 503)
+            .addFilterAfter(new BulkheadFilter(endpointBulkheads), RateLimitFilter.class)
+            
             // 요청 로깅 필터 추가
             .addFilterBefore(new RequestLoggingFilter(), HeaderBasedAuthenticationFilter.class)
             
             // 엔드포인트별 권한 설정
             .authorizeHttpRequests(authz -> authz
+                // 에러/비동기 디스패치는 원 요청에서 이미 인가됨
+                .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
+                
                 // Health check - 모두 허용
-                .antMatchers(HttpMethod.GET, "/api/users/health").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/health").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/health").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/health").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                
+                // Actuator (metrics 등) - ADMIN 권한 필요
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Gateway internal endpoints - 모두 허용
-                .antMatchers(HttpMethod.GET, "/api/users/gateway/lookup/*").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/gateway/lookup/*").permitAll()
                 
                 // 인증 관련 - 모두 허용
-                .antMatchers(HttpMethod.POST, "/api/users").permitAll()  // 회원가입
-                .antMatchers(HttpMethod.POST, "/api/users/authenticate").permitAll()  // 로그인
-                .antMatchers(HttpMethod.POST, "/api/users/oauth2").permitAll()  // OAuth2 로그인
-                .antMatchers(HttpMethod.PUT, "/api/users/verify-email").permitAll()  // 이메일 인증
+                .requestMatchers(HttpMethod.POST, "/api/users").permitAll()  // 회원가입
+                .requestMatchers(HttpMethod.POST, "/api/users/authenticate").permitAll()  // 로그인
+                .requestMatchers(HttpMethod.POST, "/api/users/oauth2").permitAll()  // OAuth2 로그인
+                .requestMatchers(HttpMethod.PUT, "/api/users/verify-email").permitAll()  // 이메일 인증
                 
                 // 사용자 조회 - 인증 필요
-                .antMatchers(HttpMethod.GET, "/api/users").authenticated()  // 전체 사용자 목록 (ADMIN 권한 필요할 수도)
-                .antMatchers(HttpMethod.GET, "/api/users/*").authenticated()  // 특정 사용자 조회
-                .antMatchers(HttpMethod.GET, "/api/users/email/*").authenticated()  // 이메일로 사용자 조회
+                .requestMatchers(HttpMethod.GET, "/api/users").authenticated()  // 전체 사용자 목록 (ADMIN 권한 필요할 수도)
+                .requestMatchers(HttpMethod.GET, "/api/users/search").hasRole("ADMIN")  // 이름/이메일 검색
+                .requestMatchers("/api/users/snapshot", "/api/users/snapshot/**").hasRole("ADMIN")  // 전체 사용자 스냅샷 발행
+                .requestMatchers("/api/users/bulk-delete").hasRole("ADMIN")  // 사용자 일괄 삭제
+                .requestMatchers(HttpMethod.GET, "/api/users/*").authenticated()  // 특정 사용자 조회
+                .requestMatchers(HttpMethod.GET, "/api/users/email/*").authenticated()  // 이메일로 사용자 조회
                 
                 // 사용자 수정/삭제 - 인증 필요 (본인 또는 ADMIN)
-                .antMatchers(HttpMethod.PUT, "/api/users/*").authenticated()
-                .antMatchers(HttpMethod.DELETE, "/api/users/*").authenticated()
+                .requestMatchers(HttpMethod.PUT, "/api/users/*").authenticated()
+                .requestMatchers(HttpMethod.DELETE, "/api/users/*").authenticated()
                 
                 // 관리자 기능 - ADMIN 권한 필요
-                .antMatchers(HttpMethod.PUT, "/api/users/*/suspend").hasRole("ADMIN")
-                .antMatchers(HttpMethod.PUT, "/api/users/*/activate").hasRole("ADMIN")
-                .antMatchers(HttpMethod.POST, "/api/users/test-event").hasRole("ADMIN")  // 테스트용 엔드포인트
+                .requestMatchers(HttpMethod.PUT, "/api/users/*/suspend").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/users/*/activate").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/users/test-event").hasRole("ADMIN")  // 테스트용 엔드포인트
                 
                 // 기타 모든 요청은 인증 필요
                 .anyRequest().authenticated()
@@ -80,10 +118,24 @@ public class SecurityConfig {
     public static class RequestLoggingFilter extends OncePerRequestFilter {
         private static final Logger filterLogger = LoggerFactory.getLogger(RequestLoggingFilter.class);
 
+        // k8s 프로브는 수 초마다 호출되므로 로깅 생략
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String uri = request.getRequestURI();
+            return uri.startsWith("/actuator/health") || uri.equals("/api/users/health");
+        }
+
         @Override
         protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                         FilterChain filterChain) throws ServletException, IOException {
             
+            // 스타트업 워밍업 요청(루프백)은 로깅 생략
+            if (StartupWarmup.isWarmupRequest(request)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            
+            long timingStart = RequestTiming.start();
             filterLogger.info("=== INCOMING REQUEST ===");
             filterLogger.info("Method: {} {}", request.getMethod(), request.getRequestURI());
             filterLogger.info("Remote IP: {}", request.getRemoteAddr());
@@ -102,10 +154,36 @@ public class SecurityConfig {
                 filterLogger.info("{}: {}", headerName, request.getHeader(headerName));
             }
             filterLogger.info("======================");
+            RequestTiming.stop(TimingStage.LOGGING, timingStart);
             
             filterChain.doFilter(request, response);
             
+            // 비동기 처리 중이면 응답 상태는 완료 시점에 로깅
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        filterLogger.info("Response Status: {}",
+                            ((HttpServletResponse) event.getSuppliedResponse()).getStatus());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                return;
+            }
+            timingStart = RequestTiming.start();
             filterLogger.info("Response Status: {}", response.getStatus());
+            RequestTiming.stop(TimingStage.LOGGING, timingStart);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.QueryBudgetProperties;
+import com.example.userservice.datasource.StatementAccountingFilter;
+import com.example.userservice.datasource.StatementCountingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request JDBC statement accounting. The application's DataSource bean ("dataSource": the
+ * Hikari pool, or the routing proxy with read replicas) is wrapped with datasource-proxy so every
+ * statement, from Hibernate or JdbcTemplate, is counted and timed; the filter turns the counts
+ * into per-route metrics and budget warnings.
+ */
+@Configuration
+public class StatementAccountingConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(new StatementCountingListener())
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementAccountingFilter> statementAccountingFilter(QueryBudgetProperties budgets,
+                                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementAccountingFilter> registration = new FilterRegistrationBean<>(
+                new StatementAccountingFilter(budgets, meterRegistry));
+        // Right after ServerTimingFilter, around the security chain and the controllers
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
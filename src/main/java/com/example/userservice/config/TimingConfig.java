@@ -0,0 +1,46 @@
+package com.example.userservice.config;
+
+import com.example.userservice.timing.ServerTimingFilter;
+import com.example.userservice.timing.TimedJackson2HttpMessageConverter;
+import com.example.userservice.timing.TimingSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Per-request stage timing (Server-Timing header, access log, optional span export).
+ * The filter is registered with the servlet container ahead of the Spring Security chain;
+ * DB stages come from the Hibernate session listener set in application.yml.
+ */
+@Configuration
+public class TimingConfig {
+
+    @Value("${timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${timing.request-header:X-Request-Timing}")
+    private String requestHeader;
+
+    @Value("${timing.sample-rate:0.0}")
+    private double sampleRate;
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ObjectProvider<TimingSpanExporter> exporter) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(requestHeader, sampleRate, exporter.getIfAvailable()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    // Replaces Boot's default JSON converter (it backs off when one is defined)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJackson2HttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.userservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exits right after startup when startup.training-run=true (cds-training profile).
+ * Used to record the classes loaded during startup into a CDS archive
+ * (-XX:ArchiveClassesAtExit) at image build time.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.training-run", havingValue = "true")
+public class TrainingRunExitListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingRunExitListener.class);
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        logger.info("Training run finished, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.datasource.StatementStats;
+import com.example.userservice.dto.response.ErrorResponse;
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the DB-bound controller methods off the Tomcat thread (async.enabled), so a slow database
+ * or Kafka send holds a pool thread here instead of a connector thread, and the connector keeps
+ * serving cheap requests. The pool and its queue are bounded: a full queue and a call that has not
+ * finished within async.timeout-ms both answer 503 with Retry-After, like the bulkheads.
+ *
+ * The work sees the caller's security context, a copy of its request attributes, timing and
+ * statement counts. A call that times out while queued is skipped. A read that is already running
+ * finishes, but its result is dropped. Writes (submitWrite) time out only while queued, so a 503
+ * always means the write did not happen.
+ * Metrics: executor.* (name=db-calls, from Micrometer), db.calls.rejected, db.calls.timeouts.
+ */
+@Component
+public class DbCallExecutor {
+
+    private static final ErrorResponse SERVER_BUSY = new ErrorResponse("Server busy, retry later");
+
+    @Value("${async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${async.threads:16}")
+    private int threads;
+
+    @Value("${async.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${async.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor pool;
+    private ExecutorService executor;
+    private Counter rejected;
+    private Counter timeouts;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "db-call-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Adds queue wait (executor.idle) and run time (executor) timers to the pool gauges
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "db-calls");
+        rejected = Counter.builder("db.calls.rejected")
+                .description("DB-bound requests answered 503 because the executor queue was full")
+                .register(meterRegistry);
+        timeouts = Counter.builder("db.calls.timeouts")
+                .description("DB-bound requests answered 503 because they did not finish within async.timeout-ms")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /** Threads running a call now. */
+    public int getActiveCount() {
+        return pool == null ? 0 : pool.getActiveCount();
+    }
+
+    /** Calls waiting for a thread. */
+    public int getQueuedCount() {
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    /**
+     * Runs {@code call} on the executor, or on the calling thread when async is disabled.
+     * The returned future always completes with a response; exceptions from the call are passed on.
+     * For reads: the call may still be running when the future times out.
+     */
+    public CompletableFuture<ResponseEntity<?>> submit(Supplier<ResponseEntity<?>> call) {
+        return submit(call, true);
+    }
+
+    /**
+     * Like {@link #submit}, for calls that change data. Answered 503 only if it has not started
+     * within async.timeout-ms; once started, the response waits for the commit, bounded by the
+     * servlet async timeout. A client that retries after a 503 therefore cannot apply it twice.
+     */
+    public CompletableFuture<ResponseEntity<?>> submitWrite(Supplier<ResponseEntity<?>> call) {
+        return submit(call, false);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> submit(Supplier<ResponseEntity<?>> call, boolean timeOutWhileRunning) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(call.get());
+        }
+
+        CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        // Claimed by whichever comes first: the worker starting the call or the queue timeout
+        AtomicBoolean claimed = new AtomicBoolean();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        // Tomcat recycles the request once this thread returns, so the worker gets a copy
+        DetachedRequestAttributes requestAttributes =
+                DetachedRequestAttributes.copyOf(RequestContextHolder.getRequestAttributes());
+        RequestTiming timing = RequestTiming.current();
+        StatementStats stats = StatementStats.current();
+        long queuedAt = RequestTiming.start();
+        try {
+            executor.execute(() -> {
+                if (!claimed.compareAndSet(false, true) || result.isDone()) {
+                    return;
+                }
+                SecurityContextHolder.setContext(securityContext);
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                RequestTiming previousTiming = RequestTiming.attach(timing);
+                StatementStats previousStats = StatementStats.attach(stats);
+                try {
+                    RequestTiming.stop(TimingStage.QUEUE, queuedAt);
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    StatementStats.restore(previousStats);
+                    RequestTiming.restore(previousTiming);
+                    requestAttributes.requestCompleted();
+                    RequestContextHolder.resetRequestAttributes();
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(serverBusy());
+        }
+
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            // A started write must not be reported as failed while it may still commit
+            if (!claimed.compareAndSet(false, true) && !timeOutWhileRunning) {
+                return;
+            }
+            if (result.complete(serverBusy())) {
+                timeouts.increment();
+            }
+        });
+        return result;
+    }
+
+    private static ResponseEntity<?> serverBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(SERVER_BUSY);
+    }
+}
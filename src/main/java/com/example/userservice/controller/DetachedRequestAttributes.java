@@ -0,0 +1,102 @@
+package com.example.userservice.controller;
+
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request attributes for a DbCallExecutor thread, copied from the servlet request before the
+ * hand-off. Tomcat recycles the request once its thread returns from the dispatch, so the worker
+ * must not reach the HttpServletRequest; it works on this copy instead. Writes stay on the copy.
+ * There is no session (the API is stateless): session-scope reads return null and writes fail.
+ */
+class DetachedRequestAttributes implements RequestAttributes {
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<Runnable> destructionCallbacks = new ArrayList<>();
+
+    /** Copies the request-scope attributes; call on the thread that owns the request. */
+    static DetachedRequestAttributes copyOf(RequestAttributes source) {
+        DetachedRequestAttributes copy = new DetachedRequestAttributes();
+        if (source != null) {
+            for (String name : source.getAttributeNames(SCOPE_REQUEST)) {
+                Object value = source.getAttribute(name, SCOPE_REQUEST);
+                if (value != null) {
+                    copy.attributes.put(name, value);
+                }
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public Object getAttribute(String name, int scope) {
+        return scope == SCOPE_REQUEST ? attributes.get(name) : null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        checkRequestScope(scope);
+        // As on a servlet request, a null value removes the attribute
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+        if (scope == SCOPE_REQUEST) {
+            attributes.remove(name);
+        }
+    }
+
+    @Override
+    public String[] getAttributeNames(int scope) {
+        return scope == SCOPE_REQUEST ? attributes.keySet().toArray(new String[0]) : new String[0];
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback, int scope) {
+        checkRequestScope(scope);
+        synchronized (destructionCallbacks) {
+            destructionCallbacks.add(callback);
+        }
+    }
+
+    @Override
+    public Object resolveReference(String key) {
+        // REFERENCE_REQUEST would be the recycled request
+        return null;
+    }
+
+    @Override
+    public String getSessionId() {
+        throw new IllegalStateException("No session on a DB call thread");
+    }
+
+    @Override
+    public Object getSessionMutex() {
+        throw new IllegalStateException("No session on a DB call thread");
+    }
+
+    /** Runs the destruction callbacks of request-scoped beans created by the call. */
+    void requestCompleted() {
+        synchronized (destructionCallbacks) {
+            for (Runnable callback : destructionCallbacks) {
+                callback.run();
+            }
+            destructionCallbacks.clear();
+        }
+    }
+
+    private static void checkRequestScope(int scope) {
+        if (scope != SCOPE_REQUEST) {
+            throw new IllegalStateException("No session on a DB call thread");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.response.UserIdResponse;
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Writes hot-path responses with ObjectWriters built once at startup, straight to the servlet
+ * output stream. Skips the per-call writer setup and content negotiation of the message converters,
+ * and sets Content-Length so small bodies are not sent chunked.
+ */
+@Component
+public class JsonResponseWriter {
+
+    private final ObjectWriter userIdWriter;
+
+    public JsonResponseWriter(ObjectMapper objectMapper) {
+        this.userIdWriter = objectMapper.writerFor(UserIdResponse.class);
+    }
+
+    public void writeUserId(HttpServletResponse response, UserIdResponse body) throws IOException {
+        write(response, userIdWriter, body);
+    }
+
+    private static void write(HttpServletResponse response, ObjectWriter writer, Object body) throws IOException {
+        long timingStart = RequestTiming.start();
+        byte[] bytes = writer.writeValueAsBytes(body);
+        RequestTiming.stop(TimingStage.JSON, timingStart);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+}
@@ -1,33 +1,45 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.request.BulkDeleteRequest;
 import com.example.userservice.dto.request.CreateUserRequest;
 import com.example.userservice.dto.request.UpdateUserRequest;
+import com.example.userservice.dto.response.ErrorResponse;
+import com.example.userservice.dto.response.MessageResponse;
 import com.example.userservice.dto.response.UserProfileResponse;
 import com.example.userservice.dto.response.PublicUserResponse;
 import com.example.userservice.dto.response.UserIdResponse;
+import com.example.userservice.service.UserBulkDeleter;
 import com.example.userservice.service.UserService;
 import com.example.userservice.event.publisher.UserEventProducer;
+import com.example.userservice.event.publisher.UserSnapshotPublisher;
 import com.example.userservice.model.User;
+import com.example.userservice.model.UserStatus;
 import com.example.userservice.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
-import javax.validation.Valid;
-import javax.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -37,21 +49,44 @@ public class UserController {
     
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     
+    private static final ErrorResponse ADMIN_REQUIRED = new ErrorResponse("Access denied. Admin role required.");
+    private static final ErrorResponse ACCESS_DENIED =
+        new ErrorResponse("Access denied. You can only access your own profile or need admin role.");
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private UserEventProducer userEventProducer;
     
+    @Autowired
+    private UserSnapshotPublisher userSnapshotPublisher;
+    
+    @Autowired
+    private UserBulkDeleter userBulkDeleter;
+    
+    @Autowired
+    private JsonResponseWriter jsonResponseWriter;
+    
+    @Autowired
+    private DbCallExecutor dbCallExecutor;
+    
+    @Value("${search.min-query-length:3}")
+    private int searchMinQueryLength;
+    
+    @Value("${search.max-limit:100}")
+    private int searchMaxLimit;
+    
     @GetMapping("/health")
     @Operation(summary = "Health Check", description = "Check User service health status")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
     public ResponseEntity<Map<String, String>> health(HttpServletRequest request) {
-        logger.info("=== HEALTH CHECK REQUEST ====");
-        logger.info("Remote IP: {}", request.getRemoteAddr());
-        logger.info("User-Agent: {}", request.getHeader("User-Agent"));
-        logger.info("X-Forwarded-For: {}", request.getHeader("X-Forwarded-For"));
-        logger.info("X-Real-IP: {}", request.getHeader("X-Real-IP"));
+        // Polled by the gateway and external monitors; k8s probes use /actuator/health/{liveness,readiness}
+        if (logger.isDebugEnabled()) {
+            logger.debug("Health check from {} (User-Agent: {}, X-Forwarded-For: {}, X-Real-IP: {})",
+                request.getRemoteAddr(), request.getHeader("User-Agent"),
+                request.getHeader("X-Forwarded-For"), request.getHeader("X-Real-IP"));
+        }
         return ResponseEntity.ok(Map.of("status", "OK", "service", "User Service"));
     }
     
@@ -77,6 +112,9 @@ public class UserController {
                 case "USER_SUSPENDED":
                     userEventProducer.publishUserSuspendedEvent(testUser);
                     break;
+                case "USER_ACTIVATED":
+                    userEventProducer.publishUserActivatedEvent(testUser);
+                    break;
                 case "USER_UPDATED":
                 default:
                     userEventProducer.publishUserUpdatedEvent(testUser);
@@ -111,16 +149,11 @@ public class UserController {
         if (!SecurityUtils.hasRole("ADMIN")) {
             logger.warn("Unauthorized access attempt to get all users by: {}", 
                 SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
-            return ResponseEntity.status(403).body(Map.of("error", "Access denied. Admin role required."));
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
         }
         
-        List<UserDto> users = userService.getAllUsers(page, size);
-        List<PublicUserResponse> publicUsers = users.stream()
-                .map(user -> userService.getUserEntityById(user.getId())
-                        .map(PublicUserResponse::new)
-                        .orElse(null))
-                .filter(response -> response != null)
-                .collect(Collectors.toList());
+        // One projection query per page (was a findById per row)
+        List<PublicUserResponse> publicUsers = userService.getPublicUsers(page, size);
         return ResponseEntity.ok(Map.of(
             "users", publicUsers,
             "page", page,
@@ -129,6 +162,171 @@ public class UserController {
         ));
     }
     
+    @GetMapping("/search")
+    @Operation(summary = "Search Users", description = "Case-insensitive substring search on name and email (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching users, ordered by ID"),
+        @ApiResponse(responseCode = "400", description = "Query too short"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<?> searchUsers(
+            @Parameter(description = "Text contained in the name or email") @RequestParam String q,
+            @Parameter(description = "Maximum number of results") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Continuation cursor from the previous page") @RequestParam(required = false) UUID after) {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            logger.warn("Unauthorized search attempt by: {}",
+                SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        // Trigram indexes cannot narrow patterns shorter than three characters
+        if (q.trim().length() < searchMinQueryLength) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(
+                "Query must be at least " + searchMinQueryLength + " characters"));
+        }
+        
+        int pageLimit = Math.max(1, Math.min(limit, searchMaxLimit));
+        List<PublicUserResponse> users = userService.searchUsers(q, after, pageLimit);
+        boolean hasMore = users.size() > pageLimit;
+        if (hasMore) {
+            users = users.subList(0, pageLimit);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("users", users);
+        body.put("limit", pageLimit);
+        body.put("next", hasMore ? users.get(users.size() - 1).getId() : null);
+        return ResponseEntity.ok(body);
+    }
+    
+    @PostMapping("/snapshot")
+    @Operation(summary = "Start User Snapshot", description = "Publish every user as a USER_PROFILE event with action SNAPSHOT, for bootstrapping new consumers (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Snapshot started"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "409", description = "A snapshot is already running")
+    })
+    public ResponseEntity<?> startSnapshot() {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        Optional<UUID> snapshotId = userSnapshotPublisher.start();
+        if (snapshotId.isEmpty()) {
+            return ResponseEntity.status(409).body(new ErrorResponse("A snapshot is already running"));
+        }
+        logger.info("User snapshot {} started by {}", snapshotId.get(),
+            SecurityUtils.getCurrentUserEmail().orElse("unknown"));
+        return ResponseEntity.accepted().body(Map.of("snapshotId", snapshotId.get().toString()));
+    }
+    
+    @PostMapping("/snapshot/{snapshotId}/resume")
+    @Operation(summary = "Resume User Snapshot", description = "Continue a stopped or failed snapshot from its checkpoints (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Snapshot resumed"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "409", description = "A snapshot is running, or nothing is left to publish for this ID")
+    })
+    public ResponseEntity<?> resumeSnapshot(@Parameter(description = "Snapshot ID") @PathVariable UUID snapshotId) {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        if (!userSnapshotPublisher.resume(snapshotId)) {
+            return ResponseEntity.status(409).body(ErrorResponse.forId(
+                "A snapshot is running, or snapshot has no unfinished ranges", snapshotId));
+        }
+        return ResponseEntity.accepted().body(Map.of("snapshotId", snapshotId.toString()));
+    }
+    
+    @GetMapping("/snapshot")
+    @Operation(summary = "User Snapshot Status", description = "Progress of the most recent snapshot (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot progress"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "No snapshot has been started")
+    })
+    public ResponseEntity<?> snapshotStatus() {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        return userSnapshotPublisher.status()
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(new ErrorResponse("No snapshot has been started")));
+    }
+    
+    @DeleteMapping("/snapshot")
+    @Operation(summary = "Stop User Snapshot", description = "Stop the running snapshot after its in-flight chunks; it can be resumed later (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Snapshot stopping"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "No snapshot is running")
+    })
+    public ResponseEntity<?> stopSnapshot() {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        if (!userSnapshotPublisher.stop()) {
+            return ResponseEntity.status(404).body(new ErrorResponse("No snapshot is running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Snapshot stopping"));
+    }
+    
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Start Bulk Delete", description = "Soft-delete users by id list, or by status, creation time and email domain, in the background (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Bulk delete started"),
+        @ApiResponse(responseCode = "400", description = "Neither or both of ids and a filter given, or too many ids"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "409", description = "A bulk delete is already running")
+    })
+    public ResponseEntity<?> startBulkDelete(@Valid @RequestBody BulkDeleteRequest request) {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        Optional<UUID> jobId;
+        try {
+            jobId = userBulkDeleter.start(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        if (jobId.isEmpty()) {
+            return ResponseEntity.status(409).body(new ErrorResponse("A bulk delete is already running"));
+        }
+        logger.info("Bulk delete {} started by {}", jobId.get(),
+            SecurityUtils.getCurrentUserEmail().orElse("unknown"));
+        return ResponseEntity.accepted().body(Map.of("jobId", jobId.get().toString()));
+    }
+    
+    @GetMapping("/bulk-delete")
+    @Operation(summary = "Bulk Delete Status", description = "Progress of the most recent bulk delete on this instance (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk delete progress"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "No bulk delete has been started")
+    })
+    public ResponseEntity<?> bulkDeleteStatus() {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        return userBulkDeleter.status()
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(404).body(new ErrorResponse("No bulk delete has been started")));
+    }
+    
+    @DeleteMapping("/bulk-delete")
+    @Operation(summary = "Cancel Bulk Delete", description = "Stop the running bulk delete after its current chunk; users already deleted stay deleted (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Bulk delete cancelling"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "No bulk delete is running")
+    })
+    public ResponseEntity<?> cancelBulkDelete() {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        if (!userBulkDeleter.cancel()) {
+            return ResponseEntity.status(404).body(new ErrorResponse("No bulk delete is running"));
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Bulk delete cancelling"));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get User by ID", description = "Retrieve a specific user by their ID")
     @ApiResponses(value = {
@@ -136,19 +334,21 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Access denied"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<?> getUserById(@Parameter(description = "User ID") @PathVariable UUID id) {
+    public CompletableFuture<ResponseEntity<?>> getUserById(@Parameter(description = "User ID") @PathVariable UUID id) {
         if (!SecurityUtils.canAccessUser(id)) {
             logger.warn("Unauthorized access attempt to user ID {} by: {}", 
                 id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
-            return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only access your own profile or need admin role."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).body(ACCESS_DENIED));
         }
         
-        Optional<UserDto> user = userService.getUserById(id);
-        if (user.isPresent()) {
-            return ResponseEntity.ok(user.get());
-        } else {
-            return ResponseEntity.status(404).body(Map.of("error", "User not found", "id", id.toString()));
-        }
+        return dbCallExecutor.submit(() -> {
+            Optional<UserDto> user = userService.getUserById(id);
+            if (user.isPresent()) {
+                return ResponseEntity.ok(user.get());
+            } else {
+                return ResponseEntity.status(404).body(ErrorResponse.forId("User not found", id));
+            }
+        });
     }
     
     @GetMapping("/me")
@@ -158,44 +358,47 @@ public class UserController {
         @ApiResponse(responseCode = "401", description = "User not authenticated"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<?> getCurrentUserProfile() {
+    public CompletableFuture<ResponseEntity<?>> getCurrentUserProfile() {
         Optional<String> currentEmail = SecurityUtils.getCurrentUserEmail();
         if (!currentEmail.isPresent()) {
-            return ResponseEntity.status(401).body(Map.of("error", "User not authenticated"));
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(401).body(new ErrorResponse("User not authenticated")));
         }
         
         logger.info("Current user profile request from: {}", currentEmail.get());
         
-        Optional<UserDto> user = userService.getUserByEmail(currentEmail.get());
-        if (user.isPresent()) {
-            Optional<User> userEntity = userService.getUserEntityById(user.get().getId());
-            if (userEntity.isPresent()) {
-                UserProfileResponse profile = new UserProfileResponse(userEntity.get());
-                return ResponseEntity.ok(profile);
+        return dbCallExecutor.submit(() -> {
+            Optional<UserDto> user = userService.getUserByEmail(currentEmail.get());
+            if (user.isPresent()) {
+                return ResponseEntity.ok(new UserProfileResponse(user.get()));
             }
-        }
-        
-        return ResponseEntity.notFound().build();
+            
+            return ResponseEntity.notFound().build();
+        });
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
-        // Enhanced authorization using User ID when available
-        if (!canAccessUserByEmailEnhanced(email)) {
-            logger.warn("Unauthorized access attempt to user email {} by: {}", 
-                email, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
-            return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only access your own profile or need admin role."));
-        }
-        
-        Optional<UserDto> user = userService.getUserByEmail(email);
-        if (user.isPresent()) {
-            return ResponseEntity.ok(user.get());
-        } else {
-            return ResponseEntity.status(404).body(Map.of("error", "User not found", "email", email));
-        }
+    public CompletableFuture<ResponseEntity<?>> getUserByEmail(@PathVariable String email) {
+        return dbCallExecutor.submit(() -> {
+            // One lookup serves both the ownership check and the response
+            Optional<UserDto> user = userService.getUserByEmail(email);
+            
+            // Enhanced authorization using User ID when available
+            if (!canAccessUserByEmailEnhanced(email, user)) {
+                logger.warn("Unauthorized access attempt to user email {} by: {}", 
+                    email, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+                return ResponseEntity.status(403).body(ACCESS_DENIED);
+            }
+            
+            if (user.isPresent()) {
+                return ResponseEntity.ok(user.get());
+            } else {
+                return ResponseEntity.status(404).body(ErrorResponse.forEmail("User not found", email));
+            }
+        });
     }
     
-    private boolean canAccessUserByEmailEnhanced(String targetUserEmail) {
+    private boolean canAccessUserByEmailEnhanced(String targetUserEmail, Optional<UserDto> targetUser) {
         if (SecurityUtils.hasRole("ADMIN")) {
             logger.debug("User has ADMIN role, access granted to email user: {}", targetUserEmail);
             return true;
@@ -207,8 +410,6 @@ public class UserController {
             logger.debug("Using User ID verification for email access check - User ID: {}, Target email: {}", 
                 currentUserId.get(), targetUserEmail);
             
-            // Look up target user's ID by email
-            Optional<UserDto> targetUser = userService.getUserByEmail(targetUserEmail);
             if (targetUser.isPresent()) {
                 boolean canAccess = currentUserId.get().equals(targetUser.get().getId());
                 logger.debug("User ID comparison check: current={}, target={} - Result: {}", 
@@ -228,20 +429,29 @@ public class UserController {
     @GetMapping("/gateway/lookup/{email}")
     @Operation(summary = "Gateway User ID Lookup", description = "Internal endpoint for gateway to retrieve user ID by email")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "User ID found"),
+        @ApiResponse(responseCode = "200", description = "User ID found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserIdResponse.class))),
+        @ApiResponse(responseCode = "403", description = "User is suspended"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserIdResponse> getUserIdByEmail(@PathVariable String email) {
+    public void getUserIdByEmail(@PathVariable String email, HttpServletResponse response) throws IOException {
         logger.info("Gateway lookup request for email: {}", email);
         
         Optional<UserDto> user = userService.getUserByEmail(email);
         if (user.isPresent()) {
-            UserIdResponse response = new UserIdResponse(user.get().getId(), user.get().getEmail());
-            return ResponseEntity.ok(response);
+            // Status comes with the cached entity; no extra query
+            if (user.get().getStatus() == UserStatus.SUSPENDED) {
+                logger.info("Gateway lookup rejected, user suspended: {}", email);
+                response.setStatus(403);
+                return;
+            }
+            // Highest-volume endpoint: written with a pre-built writer, bypassing the message converters
+            jsonResponseWriter.writeUserId(response, new UserIdResponse(user.get().getId(), user.get().getEmail()));
+            return;
         }
         
         logger.warn("User not found for gateway lookup: {}", email);
-        return ResponseEntity.notFound().build();
+        response.setStatus(404);
     }
     
     @PostMapping("")
@@ -250,7 +460,7 @@ public class UserController {
         @ApiResponse(responseCode = "200", description = "User created successfully"),
         @ApiResponse(responseCode = "400", description = "Email already exists or validation error")
     })
-    public ResponseEntity<?> createUser(@Valid @RequestBody CreateUserRequest request, HttpServletRequest httpRequest) {
+    public CompletableFuture<ResponseEntity<?>> createUser(@Valid @RequestBody CreateUserRequest request, HttpServletRequest httpRequest) {
         logger.info("=== CREATE USER REQUEST ====");
         logger.info("Remote IP: {}", httpRequest.getRemoteAddr());
         logger.info("Request Method: {}", httpRequest.getMethod());
@@ -259,40 +469,76 @@ public class UserController {
         logger.info("User-Agent: {}", httpRequest.getHeader("User-Agent"));
         logger.info("X-Forwarded-For: {}", httpRequest.getHeader("X-Forwarded-For"));
         logger.info("Request Body - Email: {}, Name: {}", request.getEmail(), request.getName());
-        try {
-            UserDto user = userService.createUser(request.getEmail(), request.getName());
-            Optional<User> userEntity = userService.getUserEntityById(user.getId());
-            if (userEntity.isPresent()) {
-                UserProfileResponse profile = new UserProfileResponse(userEntity.get());
-                return ResponseEntity.ok(profile);
+        return dbCallExecutor.submitWrite(() -> {
+            try {
+                UserDto user = userService.createUser(request.getEmail(), request.getName());
+                return ResponseEntity.ok(new UserProfileResponse(user));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
             }
-            return ResponseEntity.badRequest().body(Map.of("error", "Failed to retrieve created user"));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        });
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable UUID id, @Valid @RequestBody UpdateUserRequest request) {
-        try {
-            if (!SecurityUtils.canAccessUser(id)) {
-                logger.warn("Unauthorized update attempt for user ID {} by: {}", 
-                    id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
-                return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only update your own profile or need admin role."));
-            }
-            
-            Optional<UserDto> user = userService.updateUser(id, request.getName());
-            if (user.isPresent()) {
-                Optional<User> userEntity = userService.getUserEntityById(user.get().getId());
-                if (userEntity.isPresent()) {
-                    UserProfileResponse profile = new UserProfileResponse(userEntity.get());
-                    return ResponseEntity.ok(profile);
+    public CompletableFuture<ResponseEntity<?>> updateUser(@PathVariable UUID id, @Valid @RequestBody UpdateUserRequest request) {
+        if (!SecurityUtils.canAccessUser(id)) {
+            logger.warn("Unauthorized update attempt for user ID {} by: {}", 
+                id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(403)
+                .body(new ErrorResponse("Access denied. You can only update your own profile or need admin role.")));
+        }
+        
+        return dbCallExecutor.submitWrite(() -> {
+            try {
+                Optional<UserDto> user = userService.updateUser(id, request.getName());
+                if (user.isPresent()) {
+                    return ResponseEntity.ok(new UserProfileResponse(user.get()));
                 }
+                return ResponseEntity.notFound().build();
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
             }
-            return ResponseEntity.notFound().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        });
+    }
+    
+    @PutMapping("/{id}/suspend")
+    @Operation(summary = "Suspend User", description = "Suspend a user account; the gateway lookup rejects it until activated (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User suspended"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<?> suspendUser(@PathVariable UUID id) {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            logger.warn("Unauthorized suspend attempt for user ID {} by: {}", 
+                id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
+        }
+        
+        logger.info("Suspending user ID {} by: {}", id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+        return userService.suspendUser(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    @PutMapping("/{id}/activate")
+    @Operation(summary = "Activate User", description = "Activate a suspended user account (ADMIN only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User active"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<?> activateUser(@PathVariable UUID id) {
+        if (!SecurityUtils.hasRole("ADMIN")) {
+            logger.warn("Unauthorized activate attempt for user ID {} by: {}", 
+                id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+            return ResponseEntity.status(403).body(ADMIN_REQUIRED);
         }
+        
+        logger.info("Activating user ID {} by: {}", id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
+        return userService.activateUser(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
@@ -300,12 +546,12 @@ public class UserController {
         if (!SecurityUtils.canAccessUser(id)) {
             logger.warn("Unauthorized delete attempt for user ID {} by: {}", 
                 id, SecurityUtils.getCurrentUserEmail().orElse("anonymous"));
-            return ResponseEntity.status(403).body(Map.of("error", "Access denied. You can only delete your own profile or need admin role."));
+            return ResponseEntity.status(403).body(new ErrorResponse("Access denied. You can only delete your own profile or need admin role."));
         }
         
         boolean deleted = userService.deleteUser(id);
         if (deleted) {
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            return ResponseEntity.ok(new MessageResponse("User deleted successfully"));
         }
         return ResponseEntity.notFound().build();
     }
@@ -0,0 +1,52 @@
+package com.example.userservice.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statement budgets per request (query-budget.* in application.yml).
+ * Route keys are the HTTP method and the matched controller pattern, e.g. "GET /api/users/{id}".
+ */
+@Component
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    /** Statements allowed for routes without an entry in routes. */
+    private int defaultBudget = 10;
+
+    private Map<String, Integer> routes = new LinkedHashMap<>();
+
+    public int budget(String method, String route) {
+        Integer budget = routes.get(method + " " + route);
+        return budget != null ? budget : defaultBudget;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Integer> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Integer> routes) {
+        this.routes = routes;
+    }
+}
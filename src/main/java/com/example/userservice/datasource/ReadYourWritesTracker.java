@@ -0,0 +1,80 @@
+package com.example.userservice.datasource;
+
+import com.example.userservice.security.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who just wrote so their follow-up reads are served by the primary
+ * instead of a replica that may not have replayed the write yet.
+ *
+ * Two scopes are tracked:
+ * - the current HTTP request (e.g. a write followed by a read-only lookup in the same call)
+ * - the calling user for a short window after the request (optional, datasource.replica.read-your-writes.*)
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final String REQUEST_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".WROTE";
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    @Value("${datasource.replica.read-your-writes.enabled:true}")
+    private boolean callerPinningEnabled;
+
+    @Value("${datasource.replica.read-your-writes.window-ms:5000}")
+    private long windowMillis;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public void markWrite() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        if (callerPinningEnabled) {
+            currentCaller().ifPresent(caller -> {
+                long now = System.currentTimeMillis();
+                pinnedUntil.put(caller, now + windowMillis);
+                if (pinnedUntil.size() > PURGE_THRESHOLD) {
+                    pinnedUntil.values().removeIf(until -> until < now);
+                }
+            });
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+
+        if (!callerPinningEnabled || pinnedUntil.isEmpty()) {
+            return false;
+        }
+        Optional<String> caller = currentCaller();
+        if (!caller.isPresent()) {
+            return false;
+        }
+        Long until = pinnedUntil.get(caller.get());
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            pinnedUntil.remove(caller.get(), until);
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<String> currentCaller() {
+        Optional<String> userId = SecurityUtils.getCurrentUserId().map(Object::toString);
+        return userId.isPresent() ? userId : SecurityUtils.getCurrentUserEmail();
+    }
+}
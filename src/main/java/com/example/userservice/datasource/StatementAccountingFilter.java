@@ -0,0 +1,96 @@
+package com.example.userservice.datasource;
+
+import com.example.userservice.warmup.StartupWarmup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JDBC statements of every request and records them per route
+ * (http.server.requests.statements, http.server.requests.statement.time). A request that runs
+ * more statements than its route's budget is logged and counted (query.budget.exceeded);
+ * a count that grows with the page size is the usual sign of a per-row query.
+ *
+ * Async requests keep counting on the threads they continue on (see StatementStats) and are
+ * recorded when their final dispatch ends.
+ */
+public class StatementAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementAccountingFilter.class);
+
+    private static final String STATS_ATTRIBUTE = StatementAccountingFilter.class.getName() + ".STATS";
+
+    private final QueryBudgetProperties budgets;
+    private final MeterRegistry meterRegistry;
+
+    public StatementAccountingFilter(QueryBudgetProperties budgets, MeterRegistry meterRegistry) {
+        this.budgets = budgets;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !budgets.isEnabled() || StartupWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Set when an earlier dispatch of this request went async
+        StatementStats stats = (StatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        boolean resumed = stats != null;
+        StatementStats previous = resumed ? StatementStats.attach(stats) : null;
+        if (!resumed) {
+            stats = StatementStats.begin();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (resumed) {
+                StatementStats.restore(previous);
+            }
+            if (isAsyncStarted(request)) {
+                // Counting goes on where the request continues; recorded after its last dispatch
+                request.setAttribute(STATS_ATTRIBUTE, stats);
+                if (!resumed) {
+                    StatementStats.detach();
+                }
+            } else {
+                stats.end();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                // Requests rejected before reaching a controller run no statements
+                if (pattern != null || stats.count() > 0) {
+                    record(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN", stats);
+                }
+            }
+        }
+    }
+
+    private void record(String method, String route, StatementStats stats) {
+        meterRegistry.summary("http.server.requests.statements", "method", method, "uri", route)
+                .record(stats.count());
+        if (stats.count() > 0) {
+            meterRegistry.timer("http.server.requests.statement.time", "method", method, "uri", route)
+                    .record(stats.nanos(), TimeUnit.NANOSECONDS);
+        }
+        int budget = budgets.budget(method, route);
+        if (stats.count() > budget) {
+            meterRegistry.counter("query.budget.exceeded", "method", method, "uri", route).increment();
+            logger.warn("{} {} ran {} statements, budget is {}", method, route, stats.count(), budget);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userservice.datasource;
+
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
+
+/**
+ * JDBC statements run by the request on the current thread: how many, and how long they took.
+ * Same scheme as RequestTiming: one reused instance per thread, active between begin() and end()
+ * of StatementAccountingFilter. Statements on other threads (schedulers, snapshot publisher) are not counted,
+ * except for work a request hands to another thread, which attaches the request's instance there
+ * ({@link #current()}, {@link #attach}, {@link #restore}).
+ */
+public final class StatementStats {
+
+    private static final ThreadLocal<StatementStats> CURRENT = new ThreadLocal<>();
+
+    private boolean active;
+    private int count;
+    private long nanos;
+    private long statementStartNanos;
+
+    private StatementStats() {
+    }
+
+    static void statementStarted() {
+        StatementStats stats = CURRENT.get();
+        if (stats != null && stats.active) {
+            stats.statementStartNanos = System.nanoTime();
+        }
+    }
+
+    static void statementFinished() {
+        StatementStats stats = CURRENT.get();
+        if (stats != null && stats.active) {
+            stats.count++;
+            stats.nanos += System.nanoTime() - stats.statementStartNanos;
+            // The DB stage of Server-Timing, when the request is also being timed
+            RequestTiming.stop(TimingStage.DB, stats.statementStartNanos);
+        }
+    }
+
+    /** The stats of the request running on this thread, or null outside an accounted request. */
+    public static StatementStats current() {
+        StatementStats stats = CURRENT.get();
+        return stats != null && stats.active ? stats : null;
+    }
+
+    /**
+     * Counts this thread's statements into {@code stats} (may be null) until {@link #restore}.
+     *
+     * @return the thread's previous instance, to pass to restore
+     */
+    public static StatementStats attach(StatementStats stats) {
+        StatementStats previous = CURRENT.get();
+        if (stats != null) {
+            CURRENT.set(stats);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    public static void restore(StatementStats previous) {
+        attach(previous);
+    }
+
+    // The request went async; its instance lives on in the request, not in this thread
+    static void detach() {
+        CURRENT.remove();
+    }
+
+    static StatementStats begin() {
+        StatementStats stats = CURRENT.get();
+        if (stats == null) {
+            stats = new StatementStats();
+            CURRENT.set(stats);
+        }
+        stats.count = 0;
+        stats.nanos = 0;
+        stats.active = true;
+        return stats;
+    }
+
+    void end() {
+        active = false;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.userservice.dto;
 
 import com.example.userservice.model.User;
+import com.example.userservice.model.UserStatus;
 import java.util.UUID;
 
 public class UserDto {
     private UUID id;
     private String email;
     private String name;
+    private UserStatus status;
     
     // Constructors
     public UserDto() {}
@@ -15,6 +17,7 @@ public class UserDto {
         this.id = user.getId();
         this.email = user.getEmail();
         this.name = user.getName();
+        this.status = user.getStatus();
     }
     
     public UserDto(UUID id, String email, String name) {
@@ -32,4 +35,7 @@ public class UserDto {
     
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.userservice.dto.request;
+
+import com.example.userservice.model.UserStatus;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Either {@code ids}, or a filter of at least one criterion; filter criteria are combined with AND.
+ */
+public class BulkDeleteRequest {
+    private List<UUID> ids;
+
+    private UserStatus status;
+
+    private LocalDateTime createdBefore;
+
+    @Pattern(regexp = "[A-Za-z0-9.-]+", message = "Email domain must be a plain domain name")
+    private String emailDomain;
+
+    public boolean hasFilter() {
+        return status != null || createdBefore != null || emailDomain != null;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public UserStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UserStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(LocalDateTime createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public void setEmailDomain(String emailDomain) {
+        this.emailDomain = emailDomain;
+    }
+}
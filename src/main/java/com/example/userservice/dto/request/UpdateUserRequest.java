@@ -1,6 +1,6 @@
 package com.example.userservice.dto.request;
 
-import javax.validation.constraints.Size;
+import jakarta.validation.constraints.Size;
 
 public class UpdateUserRequest {
     @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
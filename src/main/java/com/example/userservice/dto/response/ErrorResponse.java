@@ -0,0 +1,42 @@
+package com.example.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+
+// Error body for the REST API; id/email are only written when set
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorResponse {
+    private final String error;
+    private final String id;
+    private final String email;
+    
+    public ErrorResponse(String error) {
+        this(error, null, null);
+    }
+    
+    private ErrorResponse(String error, String id, String email) {
+        this.error = error;
+        this.id = id;
+        this.email = email;
+    }
+    
+    public static ErrorResponse forId(String error, UUID id) {
+        return new ErrorResponse(error, id.toString(), null);
+    }
+    
+    public static ErrorResponse forEmail(String error, String email) {
+        return new ErrorResponse(error, null, email);
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+}
\ No newline at end of file
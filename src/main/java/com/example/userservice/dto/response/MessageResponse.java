@@ -0,0 +1,13 @@
+package com.example.userservice.dto.response;
+
+public class MessageResponse {
+    private final String message;
+    
+    public MessageResponse(String message) {
+        this.message = message;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
\ No newline at end of file
@@ -14,6 +14,12 @@ public class PublicUserResponse {
         this.name = user.getName();
     }
     
+    // Used by JPQL constructor projections, so search results skip entity hydration
+    public PublicUserResponse(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+    
     public UUID getId() { 
         return id; 
     }
@@ -1,12 +1,15 @@
 package com.example.userservice.dto.response;
 
+import com.example.userservice.dto.UserDto;
 import com.example.userservice.model.User;
+import com.example.userservice.model.UserStatus;
 import java.util.UUID;
 
 public class UserProfileResponse {
     private UUID id;
     private String email;
     private String name;
+    private UserStatus status;
     
     public UserProfileResponse() {}
     
@@ -14,6 +17,15 @@ public class UserProfileResponse {
         this.id = user.getId();
         this.email = user.getEmail();
         this.name = user.getName();
+        this.status = user.getStatus();
+    }
+    
+    // Same fields as the entity, so services returning UserDto need no second lookup
+    public UserProfileResponse(UserDto user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+        this.status = user.getStatus();
     }
     
     public UUID getId() { 
@@ -39,4 +51,12 @@ public class UserProfileResponse {
     public void setName(String name) { 
         this.name = name; 
     }
+    
+    public UserStatus getStatus() { 
+        return status; 
+    }
+    
+    public void setStatus(UserStatus status) { 
+        this.status = status; 
+    }
 }
\ No newline at end of file
@@ -4,13 +4,23 @@ import com.example.userservice.event.model.BaseUserEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.NativeDetector;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -21,7 +31,8 @@ import java.util.Map;
 
 /**
  * Configuration for Azure Event Hubs using Kafka protocol
- * This class configures the Kafka producer to connect to Azure Event Hubs
+ * This class configures the Kafka producer to connect to Azure Event Hubs,
+ * or to a plain Kafka broker (no SASL/TLS) when KAFKA_BOOTSTRAP_SERVERS is set, e.g. for local load tests
  */
 @Configuration
 public class EventHubsKafkaConfig {
@@ -33,39 +44,117 @@ public class EventHubsKafkaConfig {
     
     @Value("${AZURE_EVENTHUBS_CONNECTION_STRING:${azure.eventhubs.connection-string:}}")
     private String eventHubsConnectionString;
+
+    // Needs a Listen claim; producer keys (Send only) are rejected by the broker
+    @Value("${cache-sync.connection-string:}")
+    private String cacheSyncConnectionString;
+
+    @Value("${cache-sync.idle-check-ms:2000}")
+    private long cacheSyncIdleCheckMillis;
     
-    @Value("${AZURE_EVENTHUB_NAME:${azure.eventhubs.eventhub-name:user-events}}")
+    @Value("${events.topic:user-events}")
     private String eventHubName;
 
+    @Value("${KAFKA_BOOTSTRAP_SERVERS:${kafka.bootstrap-servers:}}")
+    private String kafkaBootstrapServers;
+
+    // Event Hubs accepts gzip; plain Kafka can use lz4 or zstd
+    @Value("${snapshot.producer.compression-type:gzip}")
+    private String snapshotCompressionType;
+
+    @Value("${snapshot.producer.linger-ms:100}")
+    private int snapshotLingerMillis;
+
+    @Value("${snapshot.producer.batch-size:262144}")
+    private int snapshotBatchSize;
+
+    @Value("${jackson.blackbird.enabled:true}")
+    private boolean blackbirdEnabled;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Also used by the MVC message converters. Blackbird generates accessors at runtime,
+        // which a native image cannot do, so it stays reflective there
+        if (blackbirdEnabled && !NativeDetector.inNativeImage()) {
+            mapper.registerModule(new BlackbirdModule());
+        }
         return mapper;
     }
 
     @Bean
+    @Primary
     public ProducerFactory<String, BaseUserEvent> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
+        if (!kafkaBootstrapServers.isBlank()) {
+            logger.info("Kafka Producer configured for plain Kafka - Bootstrap servers: {}", kafkaBootstrapServers);
+        } else {
+            logger.info("Azure Event Hubs Kafka Producer configured - Namespace: {}, Event Hub: {}", 
+                eventHubsNamespace, eventHubName);
+        }
         
-        // Azure Event Hubs requires the namespace FQDN as bootstrap server
-        String bootstrapServers = eventHubsNamespace + ".servicebus.windows.net:9093";
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new DefaultKafkaProducerFactory<>(producerConfig());
+    }
+
+    /**
+     * Separate producer (own connection and buffer) for the snapshot and bulk deletes, so their large
+     * compressed batches never queue in front of live events.
+     */
+    @Bean
+    public ProducerFactory<String, BaseUserEvent> snapshotProducerFactory() {
+        Map<String, Object> configProps = producerConfig();
+        configProps.put("client.id", "user-service-snapshot");
+        configProps.put("compression.type", snapshotCompressionType);
+        configProps.put("linger.ms", snapshotLingerMillis);
+        configProps.put("batch.size", snapshotBatchSize);
+        configProps.put("max.in.flight.requests.per.connection", 5);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Consumer for the cache sync (UserCacheSyncListener). Values stay strings; the listener reads
+     * only the type and the user from each event. The container commits offsets after each batch
+     * (auto commit is off), so a restarted pod with the same name resumes its group where it left off.
+     * On Event Hubs it authenticates with cache-sync.connection-string, a Listen policy, and falls
+     * back to the producer's connection string only when that one is unset.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cache-sync.enabled", havingValue = "true")
+    public ConsumerFactory<String, String> cacheSyncConsumerFactory() {
+        Map<String, Object> configProps = connectionConfig(
+                cacheSyncConnectionString.isBlank() ? eventHubsConnectionString : cacheSyncConnectionString);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "user-service-cache-sync");
+        // A new pod's cache is empty, so older events have nothing to invalidate
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Event Hubs closes idle connections and expects a session timeout of at least 30 s
+        configProps.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
+        configProps.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, 60000);
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache-sync.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, String> cacheSyncContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cacheSyncConsumerFactory());
+        // Evictions are cheap; one consumer per pod keeps up with the whole topic
+        factory.setConcurrency(1);
+        // Lets the listener refresh its lag while the topic is quiet
+        factory.getContainerProperties().setIdleEventInterval(cacheSyncIdleCheckMillis);
+        return factory;
+    }
+
+    private Map<String, Object> producerConfig() {
+        Map<String, Object> configProps = connectionConfig(eventHubsConnectionString);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         
-        // Azure Event Hubs Kafka configuration
-        configProps.put("security.protocol", "SASL_SSL");
-        configProps.put("sasl.mechanism", "PLAIN");
-        configProps.put("sasl.jaas.config", 
-            "org.apache.kafka.common.security.plain.PlainLoginModule required " +
-            "username=\"$ConnectionString\" " +
-            "password=\"" + eventHubsConnectionString + "\";");
-        
         // Azure Event Hubs optimized settings
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        configProps.put("client.dns.lookup", "use_all_dns_ips");
         configProps.put("acks", "1");
         configProps.put("retries", 3);
         configProps.put("max.in.flight.requests.per.connection", 1);
@@ -86,16 +175,39 @@ public class EventHubsKafkaConfig {
             "userCreated:com.example.userservice.event.model.UserCreatedEvent," +
             "userDeleted:com.example.userservice.event.model.UserDeletedEvent," +
             "userSuspended:com.example.userservice.event.model.UserSuspendedEvent," +
+            "userActivated:com.example.userservice.event.model.UserActivatedEvent," +
             "userUpdated:com.example.userservice.event.model.UserUpdatedEvent," +
             "userProfile:com.example.userservice.event.model.UserProfileEvent");
         
-        logger.info("Azure Event Hubs Kafka Producer configured - Namespace: {}, Event Hub: {}", 
-            eventHubsNamespace, eventHubName);
+        return configProps;
+    }
+
+    // Bootstrap servers and authentication, shared by producers and consumers
+    private Map<String, Object> connectionConfig(String connectionString) {
+        Map<String, Object> configProps = new HashMap<>();
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        boolean plainKafka = !kafkaBootstrapServers.isBlank();
+        // Azure Event Hubs requires the namespace FQDN as bootstrap server
+        String bootstrapServers = plainKafka
+            ? kafkaBootstrapServers
+            : eventHubsNamespace + ".servicebus.windows.net:9093";
+        configProps.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        
+        // Azure Event Hubs Kafka configuration
+        if (!plainKafka) {
+            configProps.put("security.protocol", "SASL_SSL");
+            configProps.put("sasl.mechanism", "PLAIN");
+            configProps.put("sasl.jaas.config", 
+                "org.apache.kafka.common.security.plain.PlainLoginModule required " +
+                "username=\"$ConnectionString\" " +
+                "password=\"" + connectionString + "\";");
+        }
+        configProps.put("client.dns.lookup", "use_all_dns_ips");
+        return configProps;
     }
 
     @Bean
+    @Primary
     public KafkaTemplate<String, BaseUserEvent> kafkaTemplate() {
         KafkaTemplate<String, BaseUserEvent> template = new KafkaTemplate<>(producerFactory());
         // Use the configured event hub name as the topic
@@ -103,4 +215,9 @@ public class EventHubsKafkaConfig {
         logger.info("KafkaTemplate configured with default topic: {}", eventHubName);
         return template;
     }
+
+    @Bean
+    public KafkaTemplate<String, BaseUserEvent> snapshotKafkaTemplate() {
+        return new KafkaTemplate<>(snapshotProducerFactory());
+    }
 }
\ No newline at end of file
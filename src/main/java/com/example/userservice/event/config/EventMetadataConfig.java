@@ -0,0 +1,54 @@
+package com.example.userservice.event.config;
+
+import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.EventClock;
+import com.example.userservice.event.model.EventIdGenerator;
+import com.example.userservice.event.model.TimeOrderedEventIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Chooses how BaseUserEvent gets its eventId and timestamp.
+ * events.id-generator: time-ordered (UUIDv7-style, default) or random (UUID.randomUUID(), as before);
+ * a bean implementing EventIdGenerator replaces both.
+ * events.timestamp-precision: SECONDS, MILLIS (default), MICROS or NANOS.
+ */
+@Configuration
+public class EventMetadataConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventMetadataConfig.class);
+
+    @Value("${events.id-generator:time-ordered}")
+    private String idGenerator;
+
+    @Value("${events.timestamp-precision:MILLIS}")
+    private ChronoUnit timestampPrecision;
+
+    @Autowired(required = false)
+    private EventIdGenerator customIdGenerator;
+
+    @PostConstruct
+    void configure() {
+        EventIdGenerator generator;
+        if (customIdGenerator != null) {
+            generator = customIdGenerator;
+        } else if (idGenerator.equals("time-ordered")) {
+            generator = new TimeOrderedEventIdGenerator();
+        } else if (idGenerator.equals("random")) {
+            generator = () -> UUID.randomUUID().toString();
+        } else {
+            throw new IllegalStateException("events.id-generator must be time-ordered or random, not " + idGenerator);
+        }
+        BaseUserEvent.configure(generator, new EventClock(Clock.systemUTC(), timestampPrecision));
+        logger.info("Event ids from {}, timestamps to {}",
+                customIdGenerator != null ? customIdGenerator.getClass().getSimpleName() : idGenerator, timestampPrecision);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.userservice.event.consumer;
+
+import com.example.userservice.event.model.UserActivatedEvent;
+import com.example.userservice.event.model.UserCreatedEvent;
+import com.example.userservice.event.model.UserDeletedEvent;
+import com.example.userservice.event.model.UserSuspendedEvent;
+import com.example.userservice.event.model.UserUpdatedEvent;
+import com.example.userservice.index.UserEmailIndex;
+import com.example.userservice.service.UserCacheInvalidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps this pod's second-level cache in step with writes handled by other pods. Every pod reads
+ * user-events in its own consumer group (cache-sync.group-id-prefix plus the pod name), so each
+ * pod sees every event, evicts the user the event names and loads it again from the primary
+ * (UserCacheInvalidator.evictAndReload), never from a replica that may lag behind the write.
+ * Staleness is bounded by the consumer lag: users.cache.sync.lag (records behind the end of the
+ * topic) and users.cache.sync.delay (send time to eviction).
+ *
+ * UserService sends events after its transaction commits. Bulk deletes send theirs before, and
+ * the reload waits for their row locks, bounded by cache-sync.lock-timeout-ms.
+ *
+ * With email-index.enabled, sign-ups and deletions also update the email index, which is then
+ * checked against the primary. UserService trusts an index miss only while {@link #isCaughtUp()}.
+ */
+@Component
+@ConditionalOnProperty(name = "cache-sync.enabled", havingValue = "true")
+public class UserCacheSyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheSyncListener.class);
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Autowired(required = false)
+    private UserEmailIndex userEmailIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong lag = new AtomicLong();
+    private volatile boolean caughtUp;
+    private Timer delay;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.cache.sync.lag", lag, AtomicLong::get)
+                .description("user-events records not yet applied to this pod's cache")
+                .register(meterRegistry);
+        delay = Timer.builder("users.cache.sync.delay")
+                .description("Time from sending a user event to evicting its user on this pod")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = "user-cache-sync",
+            topics = "${events.topic:user-events}",
+            groupId = "${cache-sync.group-id-prefix:user-service-cache-}${HOSTNAME:${random.uuid}}",
+            containerFactory = "cacheSyncContainerFactory")
+    public void onEvent(ConsumerRecord<String, String> record, Consumer<?, ?> consumer) {
+        caughtUp = false;
+        try {
+            apply(record);
+        } catch (Exception e) {
+            // A malformed event must not stop the sync; the entry goes stale until its next write
+            logger.warn("Skipping user event at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+        }
+        updateLag(consumer);
+    }
+
+    // Published on the consumer thread, so the consumer may be used here
+    @EventListener(condition = "event.listenerId.startsWith('user-cache-sync')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        updateLag(event.getConsumer());
+    }
+
+    /**
+     * True once this pod has applied every event up to the end of its partitions, as of the last
+     * fetch. False before the first fetch, while an event is being applied and while behind.
+     */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    private void apply(ConsumerRecord<String, String> record) throws Exception {
+        JsonNode event = objectMapper.readTree(record.value());
+        String type = event.path("eventType").asText();
+        boolean evictEmail;
+        switch (type) {
+            case UserUpdatedEvent.EVENT_TYPE:
+            case UserSuspendedEvent.EVENT_TYPE:
+            case UserActivatedEvent.EVENT_TYPE:
+                evictEmail = false;
+                break;
+            // Another pod may still map the email to a purged or deleted account's id
+            case UserCreatedEvent.EVENT_TYPE:
+            case UserDeletedEvent.EVENT_TYPE:
+                evictEmail = true;
+                break;
+            default:
+                // Snapshot events (USER_PROFILE) repeat the current state; nothing to invalidate
+                return;
+        }
+        UUID userId = UUID.fromString(event.path("userId").asText());
+        String email = evictEmail && event.hasNonNull("email") ? event.get("email").asText() : null;
+        if (userEmailIndex != null && email != null) {
+            if (UserCreatedEvent.EVENT_TYPE.equals(type)) {
+                userEmailIndex.add(userId, email);
+            } else {
+                userEmailIndex.remove(userId, email);
+            }
+        }
+        userCacheInvalidator.evictAndReload(userId, email);
+        if (userEmailIndex != null && email != null) {
+            // The writer has committed once the reload returns
+            userEmailIndex.reconcile(userId, email);
+        }
+        meterRegistry.counter("users.cache.sync.evictions", "event", type).increment();
+        delay.record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+    }
+
+    // From the consumer's last fetch response, no extra request
+    private void updateLag(Consumer<?, ?> consumer) {
+        long total = 0;
+        boolean known = !consumer.assignment().isEmpty();
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong partitionLag = consumer.currentLag(partition);
+            if (partitionLag.isPresent()) {
+                total += partitionLag.getAsLong();
+            } else {
+                known = false;
+            }
+        }
+        lag.set(total);
+        caughtUp = known && total == 0;
+    }
+}
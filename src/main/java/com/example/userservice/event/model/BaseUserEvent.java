@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "eventType")
@@ -12,22 +14,29 @@ import java.util.UUID;
     @JsonSubTypes.Type(value = UserCreatedEvent.class, name = "USER_CREATED"),
     @JsonSubTypes.Type(value = UserDeletedEvent.class, name = "USER_DELETED"),
     @JsonSubTypes.Type(value = UserSuspendedEvent.class, name = "USER_SUSPENDED"),
+    @JsonSubTypes.Type(value = UserActivatedEvent.class, name = "USER_ACTIVATED"),
     @JsonSubTypes.Type(value = UserUpdatedEvent.class, name = "USER_UPDATED"),
     @JsonSubTypes.Type(value = UserProfileEvent.class, name = "USER_PROFILE")
 })
 public abstract class BaseUserEvent {
     
+    // Replaced at startup by EventMetadataConfig; static because events are created with new
+    private static volatile EventIdGenerator idGenerator = new TimeOrderedEventIdGenerator();
+    private static volatile EventClock clock = new EventClock(Clock.systemUTC(), ChronoUnit.MILLIS);
+    
     private String eventId;
     
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime timestamp;
+    // Serialized as ISO-8601 in UTC, e.g. 2025-01-31T09:15:02.123Z; the Kafka JsonSerializer
+    // uses its own ObjectMapper, which would otherwise write epoch seconds
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant timestamp;
     
     private UUID userId;
     private String email;
 
     public BaseUserEvent() {
-        this.eventId = UUID.randomUUID().toString();
-        this.timestamp = LocalDateTime.now();
+        this.eventId = idGenerator.nextId();
+        this.timestamp = clock.now();
     }
 
     public BaseUserEvent(UUID userId, String email) {
@@ -36,6 +45,14 @@ public abstract class BaseUserEvent {
         this.email = email;
     }
 
+    /**
+     * Sets how events created from now on get their id and timestamp.
+     */
+    public static void configure(EventIdGenerator eventIdGenerator, EventClock eventClock) {
+        idGenerator = eventIdGenerator;
+        clock = eventClock;
+    }
+
     public abstract String getEventType();
 
     // Getters and Setters
@@ -47,11 +64,11 @@ public abstract class BaseUserEvent {
         this.eventId = eventId;
     }
 
-    public LocalDateTime getTimestamp() {
+    public Instant getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(LocalDateTime timestamp) {
+    public void setTimestamp(Instant timestamp) {
         this.timestamp = timestamp;
     }
 
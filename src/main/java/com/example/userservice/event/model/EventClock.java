@@ -0,0 +1,27 @@
+package com.example.userservice.event.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Timestamps for BaseUserEvent: UTC instants truncated to events.timestamp-precision, so the
+ * serialized form (ISO-8601 with Z) does not carry more digits than consumers rely on.
+ */
+public class EventClock {
+
+    private final Clock clock;
+    private final ChronoUnit precision;
+
+    public EventClock(Clock clock, ChronoUnit precision) {
+        if (precision.compareTo(ChronoUnit.SECONDS) > 0) {
+            throw new IllegalArgumentException("Event timestamp precision must be SECONDS or finer, not " + precision);
+        }
+        this.clock = clock;
+        this.precision = precision;
+    }
+
+    public Instant now() {
+        return clock.instant().truncatedTo(precision);
+    }
+}
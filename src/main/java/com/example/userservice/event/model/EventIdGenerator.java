@@ -0,0 +1,11 @@
+package com.example.userservice.event.model;
+
+/**
+ * Source of BaseUserEvent ids, chosen by events.id-generator or replaced by a bean of this type
+ * (EventMetadataConfig). Called for every event, from any thread.
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,50 @@
+package com.example.userservice.event.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7-style event ids (RFC 9562): 48 bits of Unix milliseconds, a 12-bit counter and 62 random
+ * bits. Ids, and their strings, sort by creation time across threads and pods to the
+ * millisecond, and within one thread in creation order.
+ *
+ * Nothing is shared between threads: the counter is per thread and the random bits come from
+ * ThreadLocalRandom, so unlike UUID.randomUUID() there is no SecureRandom to contend on. A
+ * per-process salt from SecureRandom, drawn once, keeps pods whose ThreadLocalRandom seeds happen
+ * to match from producing the same ids.
+ */
+public class TimeOrderedEventIdGenerator implements EventIdGenerator {
+
+    private static final long PROCESS_SALT = new SecureRandom().nextLong();
+
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static final class Sequence {
+        long millis;
+        int counter;
+    }
+
+    private static final ThreadLocal<Sequence> SEQUENCES = ThreadLocal.withInitial(Sequence::new);
+
+    @Override
+    public String nextId() {
+        return next().toString();
+    }
+
+    public UUID next() {
+        Sequence sequence = SEQUENCES.get();
+        long millis = System.currentTimeMillis();
+        if (millis > sequence.millis) {
+            sequence.millis = millis;
+            sequence.counter = 0;
+        } else if (++sequence.counter > MAX_COUNTER) {
+            // More than 4096 ids in one millisecond, or the clock went back: borrow from the next one
+            sequence.millis++;
+            sequence.counter = 0;
+        }
+        long msb = (sequence.millis << 16) | 0x7000L | sequence.counter;
+        long lsb = ((ThreadLocalRandom.current().nextLong() ^ PROCESS_SALT) & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
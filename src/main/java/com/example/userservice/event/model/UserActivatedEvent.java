@@ -0,0 +1,21 @@
+package com.example.userservice.event.model;
+
+import java.util.UUID;
+
+public class UserActivatedEvent extends BaseUserEvent {
+    
+    public static final String EVENT_TYPE = "USER_ACTIVATED";
+
+    public UserActivatedEvent() {
+        super();
+    }
+
+    public UserActivatedEvent(UUID userId, String email) {
+        super(userId, email);
+    }
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+}
\ No newline at end of file
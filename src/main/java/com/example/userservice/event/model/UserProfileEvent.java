@@ -1,5 +1,8 @@
 package com.example.userservice.event.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -13,6 +16,11 @@ public class UserProfileEvent extends BaseUserEvent {
     private String name;
     private String action; // CREATED, UPDATED, DELETED
 
+    // users.updated_at of the row the event was built from; lets consumers drop a snapshot row
+    // that is older than a live event they already applied
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant updatedAt;
+
     public UserProfileEvent() {
         super();
     }
@@ -44,4 +52,12 @@ public class UserProfileEvent extends BaseUserEvent {
     public void setAction(String action) {
         this.action = action;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
\ No newline at end of file
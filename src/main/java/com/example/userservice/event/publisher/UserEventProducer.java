@@ -1,25 +1,33 @@
 package com.example.userservice.event.publisher;
 
 import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.UserActivatedEvent;
 import com.example.userservice.event.model.UserCreatedEvent;
 import com.example.userservice.event.model.UserDeletedEvent;
 import com.example.userservice.event.model.UserSuspendedEvent;
 import com.example.userservice.event.model.UserUpdatedEvent;
 import com.example.userservice.model.User;
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserEventProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(UserEventProducer.class);
-    private static final String TOPIC = "user-events";
+
+    @Value("${events.topic:user-events}")
+    private String topic;
 
     @Autowired
     private KafkaTemplate<String, BaseUserEvent> kafkaTemplate;
@@ -39,32 +47,56 @@ public class UserEventProducer {
         publishEvent(event, "USER_SUSPENDED");
     }
 
+    public void publishUserActivatedEvent(User user) {
+        UserActivatedEvent event = new UserActivatedEvent(user.getId(), user.getEmail());
+        publishEvent(event, "USER_ACTIVATED");
+    }
+
     public void publishUserUpdatedEvent(User user) {
         UserUpdatedEvent event = new UserUpdatedEvent(user.getId(), user.getEmail(), user.getName());
         publishEvent(event, "USER_UPDATED");
     }
 
+    /**
+     * Sends once the surrounding transaction commits, or immediately when there is none,
+     * so consumers never see an event for a change they cannot read yet.
+     */
     private void publishEvent(BaseUserEvent event, String eventType) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event, eventType);
+                }
+            });
+        } else {
+            send(event, eventType);
+        }
+    }
+
+    private void send(BaseUserEvent event, String eventType) {
         try {
             logger.info("Publishing {} event for user ID: {}, email: {} to topic: {}", 
-                eventType, event.getUserId(), event.getEmail(), TOPIC);
+                eventType, event.getUserId(), event.getEmail(), topic);
 
-            ListenableFuture<SendResult<String, BaseUserEvent>> future = 
-                kafkaTemplate.send(TOPIC, event.getUserId().toString(), event);
+            // send() blocks while metadata is fetched or the producer buffer is full
+            long timingStart = RequestTiming.start();
+            CompletableFuture<SendResult<String, BaseUserEvent>> future;
+            try {
+                future = kafkaTemplate.send(topic, event.getUserId().toString(), event);
+            } finally {
+                RequestTiming.stop(TimingStage.KAFKA, timingStart);
+            }
 
-            future.addCallback(new ListenableFutureCallback<SendResult<String, BaseUserEvent>>() {
-                @Override
-                public void onSuccess(SendResult<String, BaseUserEvent> result) {
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
                     logger.info("Successfully published {} event for user ID: {} to partition: {} with offset: {}", 
                         eventType, event.getUserId(), 
                         result.getRecordMetadata().partition(),
                         result.getRecordMetadata().offset());
-                }
-
-                @Override
-                public void onFailure(Throwable ex) {
+                } else {
                     logger.error("Failed to publish {} event for user ID: {} to topic: {}", 
-                        eventType, event.getUserId(), TOPIC, ex);
+                        eventType, event.getUserId(), topic, ex);
                     
                     // Log specific error details for Azure Event Hubs troubleshooting
                     if (ex.getCause() != null) {
@@ -75,7 +107,7 @@ public class UserEventProducer {
 
         } catch (Exception e) {
             logger.error("Error publishing {} event for user ID: {} to topic: {}", 
-                eventType, event.getUserId(), TOPIC, e);
+                eventType, event.getUserId(), topic, e);
             
             // Log configuration info for debugging
             logger.debug("Current Kafka template default topic: {}", kafkaTemplate.getDefaultTopic());
@@ -0,0 +1,325 @@
+package com.example.userservice.event.publisher;
+
+import com.example.userservice.admission.TokenBucketRateLimiter;
+import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.UserProfileEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes every live user as a USER_PROFILE event (action SNAPSHOT) so a new consumer can build
+ * its initial projection, then follow the live events on the same topic and key.
+ *
+ * The UUID space is split into equal id ranges that are published in parallel. Each range is read
+ * in keyset chunks through a server-side cursor, and its checkpoint (last published id) is
+ * committed only after the chunk's sends are acknowledged, so a stopped or failed snapshot resumes
+ * where it left off (at-least-once). Sends go through a separate compressed producer and are
+ * throttled to snapshot.max-events-per-second across all ranges, leaving the live producer alone.
+ *
+ * Runs on the pod that received the admin request; progress lives in user_snapshot_checkpoints.
+ */
+@Component
+public class UserSnapshotPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshotPublisher.class);
+
+    public static final String ACTION = "SNAPSHOT";
+
+    private static final String CHUNK_SQL =
+            "SELECT id, email, name, updated_at FROM users"
+            + " WHERE id > ? AND id <= ? AND deleted_at IS NULL"
+            + " ORDER BY id LIMIT ?";
+
+    private static final String THROTTLE_KEY = "snapshot";
+
+    // Same event hub as live events unless overridden
+    @Value("${snapshot.topic:${events.topic:user-events}}")
+    private String topic;
+
+    @Value("${snapshot.parallelism:4}")
+    private int parallelism;
+
+    @Value("${snapshot.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${snapshot.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${snapshot.max-events-per-second:2000}")
+    private double maxEventsPerSecond;
+
+    @Value("${snapshot.ack-timeout-seconds:120}")
+    private long ackTimeoutSeconds;
+
+    @Autowired
+    @Qualifier("snapshotKafkaTemplate")
+    private KafkaTemplate<String, BaseUserEvent> snapshotKafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readTemplate;
+    private TokenBucketRateLimiter throttle;
+    private TokenBucketRateLimiter.Limit throttleLimit;
+    private Counter published;
+
+    private volatile Run current;
+
+    private static final class Segment {
+        final int index;
+        final UUID upper;
+        UUID lastId;
+
+        Segment(int index, UUID upper, UUID lastId) {
+            this.index = index;
+            this.upper = upper;
+            this.lastId = lastId;
+        }
+    }
+
+    private static final class Run {
+        final UUID snapshotId;
+        final ExecutorService executor;
+        final AtomicInteger remaining;
+        volatile boolean stopped;
+        volatile boolean failed;
+
+        Run(UUID snapshotId, int segments) {
+            this.snapshotId = snapshotId;
+            this.remaining = new AtomicInteger(segments);
+            this.executor = Executors.newFixedThreadPool(segments, runnable -> {
+                Thread thread = new Thread(runnable, "user-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        // Not read-only, so ReplicaRoutingDataSource keeps chunk reads on the primary: a lagging
+        // replica could publish a row older than a live event already sent for the same user
+        readTemplate = new TransactionTemplate(transactionManager);
+        throttle = new TokenBucketRateLimiter();
+        throttleLimit = new TokenBucketRateLimiter.Limit(maxEventsPerSecond, Math.max(1, (int) (maxEventsPerSecond / 10)));
+        published = Counter.builder("users.snapshot.published")
+                .description("USER_PROFILE snapshot events acknowledged by the broker")
+                .register(meterRegistry);
+    }
+
+    public boolean isRunning() {
+        Run run = current;
+        return run != null && run.remaining.get() > 0;
+    }
+
+    /**
+     * Starts a new snapshot over the whole table.
+     *
+     * @return the snapshot id, or empty if a snapshot is already running
+     */
+    public synchronized Optional<UUID> start() {
+        if (isRunning()) {
+            return Optional.empty();
+        }
+        UUID snapshotId = UUID.randomUUID();
+        List<Segment> segments = new ArrayList<>();
+        UUID lower = new UUID(0L, 0L);
+        for (int i = 0; i < parallelism; i++) {
+            // Upper bounds split the most significant 64 bits evenly; ids are random (v4)
+            long msb = BigInteger.ONE.shiftLeft(64).multiply(BigInteger.valueOf(i + 1))
+                    .divide(BigInteger.valueOf(parallelism)).subtract(BigInteger.ONE).longValue();
+            UUID upper = new UUID(msb, -1L);
+            jdbcTemplate.update("INSERT INTO user_snapshot_checkpoints"
+                    + " (snapshot_id, segment, lower_id, upper_id, last_id) VALUES (?, ?, ?, ?, ?)",
+                    snapshotId, i, lower, upper, lower);
+            segments.add(new Segment(i, upper, lower));
+            lower = upper;
+        }
+        launch(snapshotId, segments);
+        return Optional.of(snapshotId);
+    }
+
+    /**
+     * Continues the unfinished ranges of an earlier snapshot from their checkpoints.
+     *
+     * @return false if a snapshot is running or the id has no unfinished ranges
+     */
+    public synchronized boolean resume(UUID snapshotId) {
+        if (isRunning()) {
+            return false;
+        }
+        List<Segment> segments = jdbcTemplate.query(
+                "SELECT segment, upper_id, last_id FROM user_snapshot_checkpoints"
+                + " WHERE snapshot_id = ? AND NOT completed ORDER BY segment",
+                (rs, row) -> new Segment(rs.getInt(1), rs.getObject(2, UUID.class), rs.getObject(3, UUID.class)),
+                snapshotId);
+        if (segments.isEmpty()) {
+            return false;
+        }
+        launch(snapshotId, segments);
+        return true;
+    }
+
+    /**
+     * Stops the running snapshot after its in-flight chunks; it can be resumed later.
+     */
+    public boolean stop() {
+        Run run = current;
+        if (run == null || run.remaining.get() == 0) {
+            return false;
+        }
+        run.stopped = true;
+        return true;
+    }
+
+    /**
+     * Progress of the most recent snapshot, or empty if none was ever started.
+     */
+    public Optional<Map<String, Object>> status() {
+        List<Map<String, Object>> rows = jdbcTemplate.query(
+                "SELECT snapshot_id, count(*), count(*) FILTER (WHERE completed), sum(rows_published),"
+                + " min(created_at), max(updated_at)"
+                + " FROM user_snapshot_checkpoints GROUP BY snapshot_id ORDER BY min(created_at) DESC LIMIT 1",
+                (rs, row) -> {
+                    Map<String, Object> status = new LinkedHashMap<>();
+                    UUID snapshotId = rs.getObject(1, UUID.class);
+                    int segments = rs.getInt(2);
+                    int completed = rs.getInt(3);
+                    status.put("snapshotId", snapshotId);
+                    status.put("state", state(snapshotId, segments, completed));
+                    status.put("segments", segments);
+                    status.put("completedSegments", completed);
+                    status.put("eventsPublished", rs.getLong(4));
+                    status.put("startedAt", rs.getTimestamp(5).toLocalDateTime());
+                    status.put("updatedAt", rs.getTimestamp(6).toLocalDateTime());
+                    return status;
+                });
+        return rows.stream().findFirst();
+    }
+
+    private String state(UUID snapshotId, int segments, int completed) {
+        if (completed == segments) {
+            return "COMPLETED";
+        }
+        Run run = current;
+        if (run != null && run.snapshotId.equals(snapshotId)) {
+            if (run.remaining.get() > 0) {
+                return run.stopped ? "STOPPING" : "RUNNING";
+            }
+            return run.failed ? "FAILED" : "STOPPED";
+        }
+        return "STOPPED";
+    }
+
+    private void launch(UUID snapshotId, List<Segment> segments) {
+        Run run = new Run(snapshotId, segments.size());
+        current = run;
+        logger.info("Publishing user snapshot {} over {} id ranges to {}", snapshotId, segments.size(), topic);
+        for (Segment segment : segments) {
+            run.executor.submit(() -> {
+                try {
+                    publishSegment(run, segment);
+                } catch (Exception e) {
+                    run.failed = true;
+                    logger.error("Snapshot {} range {} failed at id {}; resume to continue",
+                            run.snapshotId, segment.index, segment.lastId, e);
+                } finally {
+                    if (run.remaining.decrementAndGet() == 0) {
+                        run.executor.shutdown();
+                        logger.info("User snapshot {} {}", run.snapshotId,
+                                run.failed ? "failed" : run.stopped ? "stopped" : "finished");
+                    }
+                }
+            });
+        }
+    }
+
+    private void publishSegment(Run run, Segment segment) throws Exception {
+        while (!run.stopped) {
+            List<UserProfileEvent> chunk = readChunk(segment);
+            if (chunk.isEmpty()) {
+                markCompleted(run.snapshotId, segment);
+                return;
+            }
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(chunk.size());
+            for (UserProfileEvent event : chunk) {
+                long waitNanos;
+                while ((waitNanos = throttle.tryAcquire(THROTTLE_KEY, throttleLimit)) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                sends.add(snapshotKafkaTemplate.send(topic, event.getUserId().toString(), event));
+            }
+            snapshotKafkaTemplate.flush();
+            // Checkpoint only what the broker acknowledged
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(ackTimeoutSeconds, TimeUnit.SECONDS);
+            published.increment(chunk.size());
+
+            segment.lastId = chunk.get(chunk.size() - 1).getUserId();
+            jdbcTemplate.update("UPDATE user_snapshot_checkpoints"
+                    + " SET last_id = ?, rows_published = rows_published + ?, updated_at = CURRENT_TIMESTAMP"
+                    + " WHERE snapshot_id = ? AND segment = ?",
+                    segment.lastId, chunk.size(), run.snapshotId, segment.index);
+            if (chunk.size() < chunkSize) {
+                markCompleted(run.snapshotId, segment);
+                return;
+            }
+        }
+    }
+
+    // One bounded chunk per transaction on the primary; the connection is released before
+    // publishing so throttling never holds it
+    private List<UserProfileEvent> readChunk(Segment segment) {
+        return readTemplate.execute(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CHUNK_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, segment.lastId);
+            statement.setObject(2, segment.upper);
+            statement.setInt(3, chunkSize);
+            return statement;
+        }, (rs, row) -> {
+            UserProfileEvent event = new UserProfileEvent(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), ACTION);
+            Timestamp updatedAt = rs.getTimestamp(4);
+            event.setUpdatedAt(updatedAt != null ? updatedAt.toInstant() : null);
+            return event;
+        }));
+    }
+
+    private void markCompleted(UUID snapshotId, Segment segment) {
+        jdbcTemplate.update("UPDATE user_snapshot_checkpoints SET completed = TRUE, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE snapshot_id = ? AND segment = ?", snapshotId, segment.index);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.userservice.grpc;
+
+import com.example.userservice.admission.AdaptiveConcurrencyLimiter;
+import com.example.userservice.admission.EndpointBulkheads;
+import com.example.userservice.admission.EndpointClass;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies the GATEWAY_LOOKUP bulkhead to gRPC lookups, which do not pass through BulkheadFilter.
+ * A unary call holds a slot until it closes; a batch stream takes one per message, so a long-lived
+ * stream neither pins a slot nor skews the latency samples. Calls over the limit fail with
+ * UNAVAILABLE, the gRPC counterpart of the 503 the REST lookup returns.
+ *
+ * Like the REST gateway lookup, calls are not rate limited per caller; the gateway limits them.
+ */
+@Component
+public class GrpcBulkheadInterceptor implements ServerInterceptor {
+
+    private static final Status SERVER_BUSY = Status.UNAVAILABLE.withDescription("Server busy, retry later");
+
+    @Autowired
+    private EndpointBulkheads bulkheads;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!bulkheads.isEnabled()) {
+            return next.startCall(call, headers);
+        }
+        AdaptiveConcurrencyLimiter limiter = bulkheads.limiter(EndpointClass.GATEWAY_LOOKUP);
+        if (call.getMethodDescriptor().getType() == MethodDescriptor.MethodType.UNARY) {
+            return unary(call, headers, next, limiter);
+        }
+        return perMessage(call, headers, next, limiter);
+    }
+
+    private <ReqT, RespT> ServerCall.Listener<ReqT> unary(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                          ServerCallHandler<ReqT, RespT> next,
+                                                          AdaptiveConcurrencyLimiter limiter) {
+        if (!limiter.tryAcquire()) {
+            bulkheads.recordRejected(EndpointClass.GATEWAY_LOOKUP);
+            call.close(SERVER_BUSY, new Metadata());
+            return new ServerCall.Listener<ReqT>() {
+            };
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        ServerCall<ReqT, RespT> releasing = new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        limiter.release(System.nanoTime() - start, isOverload(status));
+                    }
+                }
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(releasing, headers);
+        } catch (RuntimeException e) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, true);
+            }
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(listener) {
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    // Cancelled by the client or its deadline; close is not called then
+                    if (released.compareAndSet(false, true)) {
+                        limiter.release(System.nanoTime() - start, true);
+                    }
+                }
+            }
+        };
+    }
+
+    private <ReqT, RespT> ServerCall.Listener<ReqT> perMessage(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                               ServerCallHandler<ReqT, RespT> next,
+                                                               AdaptiveConcurrencyLimiter limiter) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(next.startCall(call, headers)) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (closed.get()) {
+                    return;
+                }
+                if (!limiter.tryAcquire()) {
+                    bulkheads.recordRejected(EndpointClass.GATEWAY_LOOKUP);
+                    closed.set(true);
+                    call.close(SERVER_BUSY, new Metadata());
+                    return;
+                }
+                long start = System.nanoTime();
+                boolean failed = true;
+                try {
+                    super.onMessage(message);
+                    failed = false;
+                } finally {
+                    limiter.release(System.nanoTime() - start, failed);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                if (!closed.get()) {
+                    super.onHalfClose();
+                }
+            }
+        };
+    }
+
+    private static boolean isOverload(Status status) {
+        switch (status.getCode()) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+            case INTERNAL:
+            case UNKNOWN:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
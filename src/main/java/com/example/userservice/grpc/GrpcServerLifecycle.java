@@ -0,0 +1,103 @@
+package com.example.userservice.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the internal gRPC server on its own port next to the embedded Tomcat, only with
+ * grpc.server.enabled=true. The port must stay cluster-internal: it bypasses the Spring Security
+ * filter chain and, like /api/users/gateway/lookup/*, only serves the unauthenticated email lookup.
+ * GrpcBulkheadInterceptor applies the lookup bulkhead that BulkheadFilter applies over REST.
+ */
+@Component
+@ConditionalOnProperty(name = "grpc.server.enabled", havingValue = "true")
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    @Value("${grpc.server.port:9090}")
+    private int port;
+
+    @Value("${grpc.server.executor-threads:16}")
+    private int executorThreads;
+
+    @Value("${grpc.server.max-concurrent-calls-per-connection:256}")
+    private int maxConcurrentCallsPerConnection;
+
+    @Value("${grpc.server.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    @Autowired
+    private UserLookupGrpcService userLookupGrpcService;
+
+    @Autowired
+    private GrpcBulkheadInterceptor bulkheadInterceptor;
+
+    private volatile Server server;
+    private ExecutorService executor;
+
+    @Override
+    public void start() {
+        // Lookups block on the database, so keep them off the Netty event loop on a bounded pool
+        executor = Executors.newFixedThreadPool(executorThreads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("grpc-lookup-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                .permitKeepAliveTime(10, TimeUnit.SECONDS)
+                .permitKeepAliveWithoutCalls(true)
+                .addService(ServerInterceptors.intercept(userLookupGrpcService, bulkheadInterceptor))
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC lookup server started on port: {}", port);
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            server = null;
+        }
+        logger.info("gRPC lookup server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
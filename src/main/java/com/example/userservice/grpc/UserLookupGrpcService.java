@@ -0,0 +1,82 @@
+package com.example.userservice.grpc;
+
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.grpc.proto.LookupByEmailRequest;
+import com.example.userservice.grpc.proto.UserIdReply;
+import com.example.userservice.grpc.proto.UserLookupGrpc;
+import com.example.userservice.model.UserStatus;
+import com.example.userservice.service.UserService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * gRPC counterpart of the gateway lookup endpoint in UserController.
+ * Reads go through UserService so both transports share the same lookup path.
+ */
+@Component
+public class UserLookupGrpcService extends UserLookupGrpc.UserLookupImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLookupGrpcService.class);
+
+    private static final UserIdReply NOT_FOUND = UserIdReply.newBuilder().setFound(false).build();
+
+    @Autowired
+    private UserService userService;
+
+    @Override
+    public void lookupByEmail(LookupByEmailRequest request, StreamObserver<UserIdReply> responseObserver) {
+        Optional<UserDto> user = userService.getUserByEmail(request.getEmail());
+        if (user.isPresent() && user.get().getStatus() == UserStatus.SUSPENDED) {
+            // Same rejection as the REST gateway lookup (403)
+            responseObserver.onError(Status.PERMISSION_DENIED
+                .withDescription("User suspended")
+                .asRuntimeException());
+        } else if (user.isPresent()) {
+            responseObserver.onNext(toReply(user.get()));
+            responseObserver.onCompleted();
+        } else {
+            logger.debug("User not found for gRPC lookup: {}", request.getEmail());
+            responseObserver.onError(Status.NOT_FOUND
+                .withDescription("User not found")
+                .asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<LookupByEmailRequest> batchLookupByEmail(StreamObserver<UserIdReply> responseObserver) {
+        return new StreamObserver<LookupByEmailRequest>() {
+            @Override
+            public void onNext(LookupByEmailRequest request) {
+                UserIdReply reply = userService.getUserByEmail(request.getEmail())
+                        .map(UserLookupGrpcService::toReply)
+                        .orElse(NOT_FOUND);
+                responseObserver.onNext(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.warn("Batch lookup stream cancelled by client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private static UserIdReply toReply(UserDto user) {
+        return UserIdReply.newBuilder()
+                .setFound(true)
+                .setUserId(user.getId().toString())
+                .setEmail(user.getEmail())
+                .setSuspended(user.getStatus() == UserStatus.SUSPENDED)
+                .build();
+    }
+}
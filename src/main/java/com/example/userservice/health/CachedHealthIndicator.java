@@ -0,0 +1,79 @@
+package com.example.userservice.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Readiness check that runs at most once per cache period and never blocks the probe
+ * for longer than the timeout. A check that hangs is not started again until it returns.
+ */
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedHealthIndicator.class);
+
+    private final long cacheMillis;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+
+    private volatile Health cached;
+    private volatile long cachedAt;
+    private Future<Health> running;
+
+    protected CachedHealthIndicator(String name, long cacheMillis, long timeoutMillis) {
+        this.cacheMillis = cacheMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Performs the actual check; runs on the indicator's own thread.
+     */
+    protected abstract Health check() throws Exception;
+
+    @Override
+    public Health health() {
+        Health current = cached;
+        if (current != null && System.currentTimeMillis() - cachedAt < cacheMillis) {
+            return current;
+        }
+        return refresh();
+    }
+
+    private synchronized Health refresh() {
+        // Another probe may have refreshed while this one waited for the lock
+        if (cached != null && System.currentTimeMillis() - cachedAt < cacheMillis) {
+            return cached;
+        }
+        if (running == null || running.isDone()) {
+            running = executor.submit(this::check);
+        }
+        Health result;
+        try {
+            result = running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result = Health.down().withDetail("error", "check timed out after " + timeoutMillis + " ms").build();
+        } catch (ExecutionException e) {
+            logger.debug("Health check {} failed: {}", getClass().getSimpleName(), e.getCause().getMessage());
+            result = Health.down(e.getCause() instanceof Exception ? (Exception) e.getCause() : e).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Health.unknown().build();
+        }
+        cached = result;
+        cachedAt = System.currentTimeMillis();
+        return result;
+    }
+}
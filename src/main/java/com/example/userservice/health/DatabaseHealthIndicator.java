@@ -0,0 +1,97 @@
+package com.example.userservice.health;
+
+import com.example.userservice.controller.DbCallExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Readiness: the primary pool can hand out a valid connection and is not saturated.
+ * Read-only (replica) pools are reported but never fail readiness, because reads
+ * fall back to the primary when the replica is unavailable.
+ *
+ * Unless probes.readiness.db-max-waiting-threads is set, the waiter limit follows from the
+ * threads that run DB-bound requests (DbCallExecutor, or Tomcat with async off): N of them on a
+ * pool of P can leave at most N - P waiting, and the pool counts as saturated once all of them do.
+ */
+@Component
+public class DatabaseHealthIndicator extends CachedHealthIndicator {
+
+    @Autowired
+    private List<DataSource> dataSources;
+
+    // Negative: derived from the request threads and the pool size
+    @Value("${probes.readiness.db-max-waiting-threads:-1}")
+    private int maxWaitingThreads;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    @Autowired
+    private DbCallExecutor dbCallExecutor;
+
+    public DatabaseHealthIndicator(@Value("${probes.readiness.cache-ms:2000}") long cacheMillis,
+                                   @Value("${probes.readiness.timeout-ms:1000}") long timeoutMillis) {
+        super("database", cacheMillis, timeoutMillis);
+    }
+
+    @Override
+    protected Health check() throws Exception {
+        Health.Builder builder = Health.up();
+        for (DataSource dataSource : dataSources) {
+            // The "dataSource" bean is wrapped for statement counting (StatementAccountingConfig)
+            if (dataSource instanceof ProxyDataSource) {
+                dataSource = ((ProxyDataSource) dataSource).getDataSource();
+            }
+            if (!(dataSource instanceof HikariDataSource)) {
+                continue;
+            }
+            HikariDataSource hikari = (HikariDataSource) dataSource;
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("readOnly", hikari.isReadOnly());
+            if (pool != null) {
+                details.put("active", pool.getActiveConnections());
+                details.put("idle", pool.getIdleConnections());
+                details.put("max", hikari.getMaximumPoolSize());
+                details.put("waiting", pool.getThreadsAwaitingConnection());
+                if (!hikari.isReadOnly()) {
+                    details.put("maxWaiting", waitingLimit(hikari.getMaximumPoolSize()));
+                }
+            }
+            builder.withDetail(hikari.getPoolName(), details);
+            if (hikari.isReadOnly()) {
+                continue;
+            }
+
+            // Saturated: requests are already queueing for connections, do not add more
+            if (pool != null && pool.getThreadsAwaitingConnection() > waitingLimit(hikari.getMaximumPoolSize())) {
+                return builder.outOfService().withDetail("reason", "connection pool saturated").build();
+            }
+            try (Connection connection = hikari.getConnection()) {
+                if (!connection.isValid(1)) {
+                    return builder.down().withDetail("reason", "connection validation failed").build();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private int waitingLimit(int poolSize) {
+        if (maxWaitingThreads >= 0) {
+            return maxWaitingThreads;
+        }
+        int requestThreads = dbCallExecutor.isEnabled() ? dbCallExecutor.getThreads() : tomcatMaxThreads;
+        return Math.max(0, requestThreads - poolSize - 1);
+    }
+}
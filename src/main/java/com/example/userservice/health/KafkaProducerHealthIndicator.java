@@ -0,0 +1,67 @@
+package com.example.userservice.health;
+
+import com.example.userservice.event.model.BaseUserEvent;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Readiness: the event producer is not backed up. Only buffer exhaustion (sends would block
+ * request threads for up to max.block.ms) takes the pod out of rotation; broker errors are
+ * reported as UNKNOWN so a Kafka outage does not turn every pod unready at once.
+ */
+@Component
+public class KafkaProducerHealthIndicator extends CachedHealthIndicator {
+
+    private static final String PRODUCER_METRICS = "producer-metrics";
+
+    @Autowired
+    private KafkaTemplate<String, BaseUserEvent> kafkaTemplate;
+
+    @Value("${probes.readiness.kafka-min-free-buffer-ratio:0.1}")
+    private double minFreeBufferRatio;
+
+    public KafkaProducerHealthIndicator(@Value("${probes.readiness.cache-ms:2000}") long cacheMillis,
+                                        @Value("${probes.readiness.timeout-ms:1000}") long timeoutMillis) {
+        super("kafka-producer", cacheMillis, timeoutMillis);
+    }
+
+    @Override
+    protected Health check() {
+        Map<String, Double> metrics = new HashMap<>();
+        try {
+            for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+                if (PRODUCER_METRICS.equals(entry.getKey().group()) && entry.getValue().metricValue() instanceof Double) {
+                    metrics.put(entry.getKey().name(), (Double) entry.getValue().metricValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Producer could not be created (e.g. unresolvable bootstrap servers)
+            return Health.unknown().withException(e).build();
+        }
+
+        double total = metrics.getOrDefault("buffer-total-bytes", 0.0);
+        double available = metrics.getOrDefault("buffer-available-bytes", total);
+        double waiting = metrics.getOrDefault("waiting-threads", 0.0);
+        double errorRate = metrics.getOrDefault("record-error-rate", 0.0);
+
+        Health.Builder builder = Health.up()
+                .withDetail("bufferAvailableBytes", (long) available)
+                .withDetail("waitingThreads", (long) waiting)
+                .withDetail("recordErrorRate", errorRate);
+        if (waiting > 0 || (total > 0 && available / total < minFreeBufferRatio)) {
+            return builder.outOfService().withDetail("reason", "producer buffer exhausted").build();
+        }
+        if (errorRate > 0) {
+            return builder.unknown().withDetail("reason", "recent send errors").build();
+        }
+        return builder.build();
+    }
+}
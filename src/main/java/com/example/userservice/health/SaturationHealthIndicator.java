@@ -0,0 +1,81 @@
+package com.example.userservice.health;
+
+import com.example.userservice.controller.DbCallExecutor;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Readiness: OUT_OF_SERVICE while the Tomcat worker pool or the DbCallExecutor (threads plus
+ * queue) is close to exhausted, so the Service stops routing new load to this pod. With async
+ * handling the DB-bound requests return their Tomcat thread at once and back up in the executor
+ * instead. Uses a lower exit threshold than entry threshold to avoid flapping between probes.
+ * Reads a few counters, so it is not cached.
+ */
+@Component
+public class SaturationHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private DbCallExecutor dbCallExecutor;
+
+    @Value("${probes.readiness.saturation.enter-busy-ratio:0.9}")
+    private double enterBusyRatio;
+
+    @Value("${probes.readiness.saturation.exit-busy-ratio:0.7}")
+    private double exitBusyRatio;
+
+    private volatile boolean saturated;
+
+    @Override
+    public Health health() {
+        ThreadPoolExecutor executor = tomcatExecutor();
+        if (executor == null) {
+            return Health.unknown().build();
+        }
+        int busy = executor.getActiveCount();
+        int max = executor.getMaximumPoolSize();
+        double ratio = max > 0 ? (double) busy / max : 0.0;
+
+        Health.Builder builder = Health.up().withDetail("busyThreads", busy).withDetail("maxThreads", max);
+        double dbCallRatio = 0.0;
+        if (dbCallExecutor.isEnabled()) {
+            int active = dbCallExecutor.getActiveCount();
+            int queued = dbCallExecutor.getQueuedCount();
+            int capacity = dbCallExecutor.getThreads() + dbCallExecutor.getQueueCapacity();
+            dbCallRatio = capacity > 0 ? (double) (active + queued) / capacity : 0.0;
+            builder.withDetail("dbCallsActive", active)
+                    .withDetail("dbCallsQueued", queued)
+                    .withDetail("dbCallsCapacity", capacity);
+        }
+
+        double highest = Math.max(ratio, dbCallRatio);
+        if (saturated ? highest > exitBusyRatio : highest >= enterBusyRatio) {
+            saturated = true;
+            return builder.outOfService()
+                    .withDetail("reason", ratio >= dbCallRatio ? "request threads saturated" : "db-call executor saturated")
+                    .build();
+        }
+        saturated = false;
+        return builder.build();
+    }
+
+    private ThreadPoolExecutor tomcatExecutor() {
+        WebServer webServer = applicationContext.getWebServer();
+        if (!(webServer instanceof TomcatWebServer)) {
+            return null;
+        }
+        Executor executor = ((TomcatWebServer) webServer).getTomcat().getConnector().getProtocolHandler().getExecutor();
+        return executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+    }
+}
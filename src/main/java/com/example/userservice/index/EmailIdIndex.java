@@ -0,0 +1,244 @@
+package com.example.userservice.index;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from normalized email to user id, built from primitive arrays only:
+ * per slot one long holding a 64-bit hash of the email (0 marks an empty slot) and two longs
+ * holding the id. No String, UUID or entry object is kept per user, so a slot costs 24 bytes and
+ * the whole table is two arrays the GC never has to trace.
+ *
+ * The email itself is not stored, so a hit only says "this hash maps to that id". Callers verify
+ * it against the loaded row (see UserEmailIndex). Two emails with the same hash in the table share
+ * one slot marked {@link #UNRESOLVED}; lookups for either go to the database from then on.
+ *
+ * Linear probing, backward-shift deletion (no tombstones). Sized to be 60% full, grown back to
+ * that when 3/4 full, so a freshly loaded table takes new users without resizing.
+ * Reads are lock-free under an optimistic StampedLock stamp and retry under the read lock
+ * if a writer got in between; writers are serialized.
+ */
+public class EmailIdIndex {
+
+    /** Returned by {@link #get} when two indexed emails share a hash and the index cannot tell them apart. */
+    public static final UUID UNRESOLVED = new UUID(0L, 0L);
+
+    private static final double TARGET_LOAD = 0.6;
+    private static final double MAX_LOAD = 0.75;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    // Per process, so nobody can pick emails that collide on every pod
+    private final long seed = ThreadLocalRandom.current().nextLong() | 1L;
+
+    private long[] hashes;
+    // Two longs per slot: most and least significant bits of the id; 0/0 marks UNRESOLVED
+    private long[] ids;
+    private int size;
+    private int resizeAt;
+
+    public EmailIdIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the id, null if the email is not indexed, or {@link #UNRESOLVED}
+     */
+    public UUID get(String email) {
+        long hash = hash(email);
+        long stamp = lock.tryOptimisticRead();
+        UUID id = find(hash);
+        if (lock.validate(stamp)) {
+            return id;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(String email, UUID id) {
+        long hash = hash(email);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(hash);
+            if (slot >= 0) {
+                if (ids[2 * slot] != id.getMostSignificantBits() || ids[2 * slot + 1] != id.getLeastSignificantBits()) {
+                    // Another email already sits on this hash
+                    ids[2 * slot] = 0L;
+                    ids[2 * slot + 1] = 0L;
+                }
+                return;
+            }
+            if (size >= resizeAt) {
+                rehash(capacityFor(size + 1));
+            }
+            insert(hash, id.getMostSignificantBits(), id.getLeastSignificantBits());
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the email if it maps to {@code id}. A slot shared by colliding emails stays UNRESOLVED.
+     */
+    public void remove(String email, UUID id) {
+        long hash = hash(email);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(hash);
+            if (slot >= 0 && ids[2 * slot] == id.getMostSignificantBits() && ids[2 * slot + 1] == id.getLeastSignificantBits()) {
+                delete(slot);
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Bytes held by the slot arrays, including free slots. */
+    public long allocatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) hashes.length * Long.BYTES + (long) ids.length * Long.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // May read a table a writer is changing; the caller validates the stamp before trusting the result
+    private UUID find(long hash) {
+        long[] hashes = this.hashes;
+        long[] ids = this.ids;
+        int capacity = hashes.length;
+        if (ids.length != 2 * capacity) {
+            return null;
+        }
+        int slot = home(hash, capacity);
+        for (int probes = 0; probes < capacity; probes++) {
+            long current = hashes[slot];
+            if (current == 0L) {
+                return null;
+            }
+            if (current == hash) {
+                long msb = ids[2 * slot];
+                long lsb = ids[2 * slot + 1];
+                return msb == 0L && lsb == 0L ? UNRESOLVED : new UUID(msb, lsb);
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return null;
+    }
+
+    private int slotOf(long hash) {
+        int capacity = hashes.length;
+        int slot = home(hash, capacity);
+        while (hashes[slot] != 0L) {
+            if (hashes[slot] == hash) {
+                return slot;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long msb, long lsb) {
+        int capacity = hashes.length;
+        int slot = home(hash, capacity);
+        while (hashes[slot] != 0L) {
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        hashes[slot] = hash;
+        ids[2 * slot] = msb;
+        ids[2 * slot + 1] = lsb;
+    }
+
+    // Moves later members of the probe run back so lookups never stop early at the freed slot
+    private void delete(int slot) {
+        int capacity = hashes.length;
+        int free = slot;
+        int next = slot;
+        while (true) {
+            if (++next == capacity) {
+                next = 0;
+            }
+            long hash = hashes[next];
+            if (hash == 0L) {
+                break;
+            }
+            int home = home(hash, capacity);
+            // Moves it unless its home lies after the free slot, going forward around the table
+            if (Math.floorMod(next - home, capacity) >= Math.floorMod(next - free, capacity)) {
+                hashes[free] = hash;
+                ids[2 * free] = ids[2 * next];
+                ids[2 * free + 1] = ids[2 * next + 1];
+                free = next;
+            }
+        }
+        hashes[free] = 0L;
+        ids[2 * free] = 0L;
+        ids[2 * free + 1] = 0L;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldHashes = hashes;
+        long[] oldIds = ids;
+        allocate(capacity);
+        for (int slot = 0; slot < oldHashes.length; slot++) {
+            if (oldHashes[slot] != 0L) {
+                insert(oldHashes[slot], oldIds[2 * slot], oldIds[2 * slot + 1]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new long[capacity];
+        ids = new long[2 * capacity];
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long capacity = (long) Math.ceil(Math.max(expectedSize, 1) / TARGET_LOAD) + 1;
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_CAPACITY, capacity));
+    }
+
+    // Maps the high half of the hash onto [0, capacity) without a division
+    private static int home(long hash, int capacity) {
+        return (int) (((hash >>> 32) * capacity) >>> 32);
+    }
+
+    // FNV-1a over the chars, then the MurmurHash3 finalizer so every input bit reaches the high half.
+    // Overridable so EmailIdIndexCheck can force collisions; must never return 0
+    protected long hash(String email) {
+        long h = seed;
+        for (int i = 0; i < email.length(); i++) {
+            h ^= email.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0L ? 1L : h;
+    }
+}
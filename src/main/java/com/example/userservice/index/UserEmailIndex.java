@@ -0,0 +1,238 @@
+package com.example.userservice.index;
+
+import com.example.userservice.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full in-memory replica of email -> id for every live user (EmailIdIndex), so
+ * UserService.getUserByEmail answers unknown emails without SQL and resolves known ones without
+ * the user_emails lookup.
+ *
+ * Loaded by one streaming scan of users after startup; until then {@link #isReady()} is false and
+ * lookups use the database. Kept current by:
+ * - this pod's writes, applied after commit (UserService)
+ * - other pods' writes, from user-events (UserCacheSyncListener), then checked against the
+ *   primary once the writing transaction has committed ({@link #reconcile}); without that
+ *   listener, or while it is behind, UserService checks misses in the database
+ * Writes seen while the scan runs are replayed after it.
+ */
+@Component
+@ConditionalOnProperty(name = "email-index.enabled", havingValue = "true")
+public class UserEmailIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailIndex.class);
+
+    private static final String SCAN_SQL = "SELECT id, email FROM users WHERE deleted_at IS NULL";
+
+    // user_emails resolves the partition; users has no index on email
+    private static final String LIVE_ID_SQL = "SELECT u.id FROM user_emails e JOIN users u ON u.id = e.user_id"
+            + " WHERE e.email = ? AND u.deleted_at IS NULL";
+
+    @Value("${email-index.fetch-size:10000}")
+    private int fetchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile EmailIdIndex index;
+    private volatile boolean ready;
+    // Changes that arrive while the scan runs; null once ready
+    private List<Runnable> pending = new ArrayList<>();
+    private Counter fallbacks;
+    private Counter uncheckedMisses;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.email-index.size", this, indexed -> indexed.index == null ? 0 : indexed.index.size())
+                .description("Emails held by the in-memory email -> id index")
+                .register(meterRegistry);
+        Gauge.builder("users.email-index.bytes", this, indexed -> indexed.index == null ? 0 : indexed.index.allocatedBytes())
+                .description("Heap held by the email -> id index arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.email-index.ready", this, indexed -> indexed.ready ? 1 : 0)
+                .description("1 once the startup scan has finished and lookups use the index")
+                .register(meterRegistry);
+        fallbacks = Counter.builder("users.email-index.fallbacks")
+                .description("Index hits that did not match the loaded user and went to the database")
+                .register(meterRegistry);
+        uncheckedMisses = Counter.builder("users.email-index.unchecked-misses")
+                .description("Index misses sent to the database because the cache sync is off or behind")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        Thread thread = new Thread(this::load, "user-email-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the id, null if no live user has this email, or {@link EmailIdIndex#UNRESOLVED};
+     *         callers verify a returned id against the loaded user
+     */
+    public UUID lookup(String email) {
+        return index.get(User.normalizeEmail(email));
+    }
+
+    /** Counts a hit that failed verification. */
+    public void recordFallback() {
+        fallbacks.increment();
+    }
+
+    /** Counts a miss that could not be trusted and went to the database. */
+    public void recordUncheckedMiss() {
+        uncheckedMisses.increment();
+    }
+
+    /** Adds the user once the surrounding transaction commits, or immediately when there is none. */
+    public void addAfterCommit(UUID id, String email) {
+        afterCommit(() -> add(id, email));
+    }
+
+    /** Removes the user once the surrounding transaction commits, or immediately when there is none. */
+    public void removeAfterCommit(UUID id, String email) {
+        afterCommit(() -> remove(id, email));
+    }
+
+    public void add(UUID id, String email) {
+        String normalized = User.normalizeEmail(email);
+        apply(() -> index.put(normalized, id));
+    }
+
+    public void remove(UUID id, String email) {
+        String normalized = User.normalizeEmail(email);
+        apply(() -> index.remove(normalized, id));
+    }
+
+    /**
+     * Sets the entry for {@code email} to what the database holds now. Bulk deletes send their
+     * events before the chunk commits, so a remove applied from one may have been rolled back.
+     *
+     * @param id the user the event was about, removed if the email has no live user
+     */
+    public void reconcile(UUID id, String email) {
+        String normalized = User.normalizeEmail(email);
+        apply(() -> {
+            List<UUID> live;
+            try {
+                live = jdbcTemplate.queryForList(LIVE_ID_SQL, UUID.class, normalized);
+            } catch (DataAccessException e) {
+                // Keeps the entry from the event; a wrong hit still fails verification in UserService
+                logger.warn("Email index reconcile skipped for user {}: {}", id, e.getMessage());
+                return;
+            }
+            if (live.isEmpty()) {
+                index.remove(normalized, id);
+            } else {
+                index.put(normalized, live.get(0));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void apply(Runnable change) {
+        synchronized (this) {
+            if (pending != null) {
+                pending.add(change);
+                return;
+            }
+        }
+        if (index != null) {
+            change.run();
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE deleted_at IS NULL", Long.class);
+            EmailIdIndex loading = new EmailIdIndex((int) Math.min(Integer.MAX_VALUE / 4, count == null ? 0 : count));
+            // Read-write on purpose: read-only transactions may go to a replica that is behind
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SCAN_SQL);
+                // PostgreSQL streams with a cursor only inside a transaction
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                loading.put(rs.getString(2), rs.getObject(1, UUID.class));
+            }));
+            index = loading;
+
+            List<Runnable> replay;
+            while (true) {
+                synchronized (this) {
+                    replay = pending;
+                    if (replay.isEmpty()) {
+                        pending = null;
+                        break;
+                    }
+                    pending = new ArrayList<>();
+                }
+                for (Runnable change : replay) {
+                    try {
+                        change.run();
+                    } catch (Exception e) {
+                        logger.warn("Email index change skipped during load: {}", e.getMessage());
+                    }
+                }
+            }
+            ready = true;
+            logger.info("Email index loaded {} user(s), {} KB, in {} ms",
+                    loading.size(), loading.allocatedBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Lookups keep using the database; a restart retries the load
+            synchronized (this) {
+                pending = null;
+            }
+            index = null;
+            logger.error("Email index load failed after {} ms: {}", System.currentTimeMillis() - start, e.getMessage());
+        }
+    }
+}
@@ -1,38 +1,88 @@
 package com.example.userservice.model;
 
-import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+// Deletes only set a tombstone; UserTombstonePurger removes the rows later in small batches
+@SQLDelete(sql = "UPDATE users SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@SQLRestriction("deleted_at IS NULL")
 public class User {
+
+    public static final String CACHE_REGION = "users";
+
     @Id
-    @GeneratedValue(generator = "UUID")
+    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
     
-    @Column(unique = true, nullable = false)
+    // Immutable. Always stored normalized (see normalizeEmail), enforced by the users_email_normalized
+    // check constraint, so case-insensitive lookups are exact matches. Unique through user_emails
+    // (see UserEmail), which also resolves email -> id for lookups.
+    @Column(nullable = false, updatable = false)
     private String email;
     
     @Column(nullable = false)
     private String name;
     
+    // Part of the cached entity, so the gateway lookup checks it without another query
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserStatus status = UserStatus.ACTIVE;
+    
+    // Maintained by the database (column default / update trigger)
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+    
+    // Set by @SQLDelete; tombstoned rows are invisible to every entity query
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
     // Constructors
     public User() {}
     
     public User(String email, String name) {
-        this.email = email;
+        this.email = normalizeEmail(email);
         this.name = name;
     }
     
+    /**
+     * Canonical form used for storage and lookups: trimmed and lower-cased (locale independent).
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
     
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { this.email = normalizeEmail(email); }
     
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
 }
 
@@ -0,0 +1,41 @@
+package com.example.userservice.model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.UUID;
+
+/**
+ * Row of the email -> id lookup table. users is hash-partitioned on id, so it cannot carry a unique
+ * index on email; user_emails does, and lookups by email resolve the id here before reading the one
+ * partition holding the user. Written only by the maintain_users_emails trigger on users.
+ */
+@Entity
+@Table(name = "user_emails")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = UserEmail.CACHE_REGION)
+public class UserEmail {
+
+    public static final String CACHE_REGION = "user-emails";
+
+    // Normalized, same as User.email
+    @Id
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    protected UserEmail() {}
+
+    public String getEmail() { return email; }
+
+    public UUID getUserId() { return userId; }
+}
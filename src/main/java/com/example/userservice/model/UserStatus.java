@@ -0,0 +1,12 @@
+package com.example.userservice.model;
+
+/**
+ * Account status, stored as its name in users.status.
+ */
+public enum UserStatus {
+
+    ACTIVE,
+
+    /** Set by an admin; the gateway lookup rejects the account until it is activated again */
+    SUSPENDED
+}
@@ -1,13 +1,43 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.response.PublicUserResponse;
 import com.example.userservice.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+    // Server-side cursor scan; must be consumed inside a read-only transaction and closed.
+    // Active users only, which matches the partial index idx_users_active_recent.
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select u from User u where u.status = com.example.userservice.model.UserStatus.ACTIVE"
+            + " order by u.updatedAt desc nulls last")
+    Stream<User> streamRecentlyActive(Pageable pageable);
+
+    // Substring match served by the pg_trgm GIN indexes on name and email; keyset-paged by id.
+    // Patterns are '%...%' with '!' as the escape character; email is stored lower-case.
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Query("select new com.example.userservice.dto.response.PublicUserResponse(u.id, u.name) from User u"
+            + " where (u.name ilike :namePattern escape '!' or u.email like :emailPattern escape '!')"
+            + " and u.id > :after order by u.id")
+    List<PublicUserResponse> search(@Param("namePattern") String namePattern,
+                                    @Param("emailPattern") String emailPattern,
+                                    @Param("after") UUID after,
+                                    Pageable pageable);
+
+    // Admin listing as a projection: one statement per page, no count query, no entity hydration
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Query("select new com.example.userservice.dto.response.PublicUserResponse(u.id, u.name) from User u")
+    List<PublicUserResponse> findPublicUsers(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.User;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user by email: the id from user_emails, then the user by id, which reads a single
+     * partition of users. Both are second-level cached, so repeated lookups run no SQL.
+     * The email is normalized first, so matching is case-insensitive.
+     */
+    Optional<User> loadByEmail(String email);
+
+    /**
+     * Hard-deletes the soft-deleted row holding this email, if any, so the address can sign up
+     * again. The id is resolved through user_emails first so the delete is pruned to one
+     * partition. Plain JDBC: a Hibernate native or bulk statement would invalidate the whole
+     * User cache region.
+     */
+    int deleteTombstoneByEmail(String email);
+
+    /**
+     * Hard-deletes up to {@code limit} rows tombstoned longer than {@code retention} ago.
+     * Rows locked by another purger or writer are skipped, and the statement gives up after
+     * {@code lockTimeout} instead of queueing behind other locks. Must run inside a transaction.
+     */
+    int purgeTombstones(Duration retention, int limit, Duration lockTimeout);
+}
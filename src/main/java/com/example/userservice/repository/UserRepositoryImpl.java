@@ -0,0 +1,58 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEmail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String PURGE_TOMBSTONES_SQL =
+            "DELETE FROM users WHERE id IN ("
+            + " SELECT id FROM users"
+            + " WHERE deleted_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second'"
+            + " ORDER BY deleted_at LIMIT ?"
+            + " FOR UPDATE SKIP LOCKED)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<User> loadByEmail(String email) {
+        UserEmail entry = entityManager.find(UserEmail.class, User.normalizeEmail(email));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        // A tombstone's id resolves to nothing here (@SQLRestriction)
+        return Optional.ofNullable(entityManager.find(User.class, entry.getUserId()));
+    }
+
+    @Override
+    public int deleteTombstoneByEmail(String email) {
+        List<UUID> ids = jdbcTemplate.queryForList("SELECT user_id FROM user_emails WHERE email = ?",
+                UUID.class, User.normalizeEmail(email));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The trigger on users removes the user_emails row with it
+        return jdbcTemplate.update("DELETE FROM users WHERE id = ? AND deleted_at IS NOT NULL", ids.get(0));
+    }
+
+    @Override
+    public int purgeTombstones(Duration retention, int limit, Duration lockTimeout) {
+        // Transaction-local, so the pooled connection keeps its defaults afterwards
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                lockTimeout.toMillis() + "ms");
+        return jdbcTemplate.update(PURGE_TOMBSTONES_SQL, retention.toSeconds(), limit);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.userservice.security;
 
+import com.example.userservice.timing.RequestTiming;
+import com.example.userservice.timing.TimingStage;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -8,10 +10,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,6 +32,7 @@ public class HeaderBasedAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
+        long timingStart = RequestTiming.start();
         String userIdStr = request.getHeader(USER_ID_HEADER);
         String userEmail = request.getHeader(USER_EMAIL_HEADER);
         String userRoles = request.getHeader(USER_ROLES_HEADER);
@@ -65,6 +68,7 @@ public class HeaderBasedAuthenticationFilter extends OncePerRequestFilter {
             logger.debug("No authentication headers found, proceeding without authentication");
             SecurityContextHolder.clearContext();
         }
+        RequestTiming.stop(TimingStage.AUTH, timingStart);
         
         filterChain.doFilter(request, response);
     }
@@ -1,5 +1,6 @@
 package com.example.userservice.security;
 
+import com.example.userservice.model.User;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -58,7 +59,8 @@ public class SecurityUtils {
     
     public static boolean isCurrentUser(String email) {
         Optional<String> currentEmail = getCurrentUserEmail();
-        boolean isCurrentUser = currentEmail.isPresent() && currentEmail.get().equals(email);
+        boolean isCurrentUser = currentEmail.isPresent()
+            && User.normalizeEmail(currentEmail.get()).equals(User.normalizeEmail(email));
         
         logger.debug("Checking if current user '{}' matches email '{}' - Result: {}", 
             currentEmail.orElse("anonymous"), email, isCurrentUser);
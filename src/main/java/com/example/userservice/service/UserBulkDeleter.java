@@ -0,0 +1,364 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.request.BulkDeleteRequest;
+import com.example.userservice.event.model.BaseUserEvent;
+import com.example.userservice.event.model.UserDeletedEvent;
+import com.example.userservice.index.UserEmailIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Soft-deletes many users for an admin (compliance purges), by id list or by filter, in the
+ * background on the pod that received the request.
+ *
+ * Each chunk is one transaction: a single set-based UPDATE ... RETURNING over up to chunk-size
+ * users, then their USER_DELETED events to the live events topic (events.topic) through the
+ * compressed bulk producer (the snapshot's), committed only once the broker has acknowledged
+ * them, so no user is deleted without its event. Chunks run with a lock timeout and a pause
+ * between them, like the tombstone purge, so live requests keep their connections and row locks.
+ *
+ * Filter runs walk the id order; a failed or cancelled run can simply be submitted again, as
+ * deleted users no longer match. Progress is kept in memory for the most recent run.
+ */
+@Component
+public class UserBulkDeleter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkDeleter.class);
+
+    private static final String DELETE_IDS_SQL =
+            "UPDATE users SET deleted_at = CURRENT_TIMESTAMP"
+            + " WHERE id = ANY (?) AND deleted_at IS NULL"
+            + " RETURNING id, email";
+
+    // USER_DELETED is a live event: cache sync must see it even when snapshots go to their own topic
+    @Value("${events.topic:user-events}")
+    private String topic;
+
+    @Value("${bulk-delete.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk-delete.pause-ms:100}")
+    private long pauseMillis;
+
+    @Value("${bulk-delete.lock-timeout-ms:2000}")
+    private long lockTimeoutMillis;
+
+    @Value("${bulk-delete.ack-timeout-seconds:30}")
+    private long ackTimeoutSeconds;
+
+    @Value("${bulk-delete.max-ids:100000}")
+    private int maxIds;
+
+    @Autowired
+    @Qualifier("snapshotKafkaTemplate")
+    private KafkaTemplate<String, BaseUserEvent> bulkKafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Autowired(required = false)
+    private UserEmailIndex userEmailIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter deletedCounter;
+
+    private volatile Run current;
+
+    private static final class Deleted {
+        final UUID id;
+        final String email;
+
+        Deleted(UUID id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+
+    private static final class Run {
+        final UUID jobId = UUID.randomUUID();
+        final BulkDeleteRequest request;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile String state = "RUNNING";
+        volatile boolean cancelled;
+        volatile long matched = -1;
+        volatile long deleted;
+        volatile int chunks;
+        volatile UUID lastId;
+        volatile LocalDateTime updatedAt = startedAt;
+        volatile String error;
+
+        Run(BulkDeleteRequest request) {
+            this.request = request;
+        }
+
+        boolean isActive() {
+            return state.equals("RUNNING");
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        deletedCounter = Counter.builder("users.bulk-delete.deleted")
+                .description("Users soft-deleted by admin bulk deletes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts deleting in the background.
+     *
+     * @return the job id, or empty if a bulk delete is already running
+     * @throws IllegalArgumentException if the request has neither or both of ids and a filter,
+     *         or more than bulk-delete.max-ids ids
+     */
+    public synchronized Optional<UUID> start(BulkDeleteRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (hasIds == request.hasFilter()) {
+            throw new IllegalArgumentException("Give either ids or at least one filter criterion");
+        }
+        if (hasIds && request.getIds().size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per request");
+        }
+        Run running = current;
+        if (running != null && running.isActive()) {
+            return Optional.empty();
+        }
+        Run run = new Run(request);
+        current = run;
+        Thread thread = new Thread(() -> execute(run), "user-bulk-delete");
+        thread.setDaemon(true);
+        thread.start();
+        return Optional.of(run.jobId);
+    }
+
+    /**
+     * Stops the running bulk delete after its current chunk; the chunks already done stay deleted.
+     */
+    public boolean cancel() {
+        Run run = current;
+        if (run == null || !run.isActive()) {
+            return false;
+        }
+        run.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Progress of the most recent bulk delete, or empty if none was started since this pod started.
+     */
+    public Optional<Map<String, Object>> status() {
+        Run run = current;
+        if (run == null) {
+            return Optional.empty();
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", run.jobId);
+        status.put("state", run.isActive() && run.cancelled ? "CANCELLING" : run.state);
+        status.put("mode", run.request.hasFilter() ? "FILTER" : "IDS");
+        // Unknown (-1) until the filter has been counted
+        status.put("matched", run.matched);
+        status.put("deleted", run.deleted);
+        status.put("chunks", run.chunks);
+        if (run.lastId != null) {
+            status.put("lastId", run.lastId);
+        }
+        status.put("startedAt", run.startedAt);
+        status.put("updatedAt", run.updatedAt);
+        if (run.error != null) {
+            status.put("error", run.error);
+        }
+        return Optional.of(status);
+    }
+
+    private void execute(Run run) {
+        logger.info("Bulk delete {} started ({})", run.jobId, run.request.hasFilter() ? "filter" : run.request.getIds().size() + " ids");
+        try {
+            if (run.request.hasFilter()) {
+                deleteByFilter(run);
+            } else {
+                deleteByIds(run);
+            }
+            run.state = run.cancelled ? "CANCELLED" : "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.state = "CANCELLED";
+        } catch (Exception e) {
+            // The failed chunk was rolled back; everything before it stays deleted
+            run.error = e.getMessage();
+            run.state = "FAILED";
+            logger.error("Bulk delete {} failed after {} users", run.jobId, run.deleted, e);
+        }
+        run.updatedAt = LocalDateTime.now();
+        logger.info("Bulk delete {} {}: {} users in {} chunks", run.jobId, run.state.toLowerCase(Locale.ROOT),
+                run.deleted, run.chunks);
+    }
+
+    private void deleteByIds(Run run) throws InterruptedException {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(run.request.getIds()));
+        // Ids that are unknown or already deleted make up the difference to deleted
+        run.matched = ids.size();
+        for (int from = 0; from < ids.size() && !run.cancelled; from += chunkSize) {
+            UUID[] chunk = ids.subList(from, Math.min(from + chunkSize, ids.size())).toArray(new UUID[0]);
+            deleteChunk(run, DELETE_IDS_SQL, (Object) chunk);
+            pause();
+        }
+    }
+
+    private void deleteByFilter(Run run) throws InterruptedException {
+        List<Object> filterArgs = new ArrayList<>();
+        String where = filter(run.request, filterArgs);
+        run.matched = count(where, filterArgs);
+
+        // Rows are locked and rechecked by the inner SELECT; each chunk continues after the previous one's last id
+        String sql = "UPDATE users SET deleted_at = CURRENT_TIMESTAMP WHERE id IN ("
+                + " SELECT id FROM users WHERE deleted_at IS NULL AND id > ?" + where
+                + " ORDER BY id LIMIT ? FOR UPDATE)"
+                + " RETURNING id, email";
+        UUID after = new UUID(0L, 0L);
+        while (!run.cancelled) {
+            List<Object> args = new ArrayList<>();
+            args.add(after);
+            args.addAll(filterArgs);
+            args.add(chunkSize);
+            List<Deleted> chunk = deleteChunk(run, sql, args.toArray());
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // PostgreSQL compares uuids bytewise, like the keyset; RETURNING has no order
+            for (Deleted user : chunk) {
+                if (compareUnsigned(user.id, after) > 0) {
+                    after = user.id;
+                }
+            }
+            run.lastId = after;
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            pause();
+        }
+    }
+
+    private List<Deleted> deleteChunk(Run run, String sql, Object... args) {
+        List<Deleted> deleted = transactionTemplate.execute(status -> {
+            // Transaction-local, so the pooled connection keeps its defaults afterwards
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                    lockTimeoutMillis + "ms");
+            List<Deleted> users = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i] instanceof UUID[]) {
+                        statement.setArray(i + 1, connection.createArrayOf("uuid", (UUID[]) args[i]));
+                    } else {
+                        statement.setObject(i + 1, args[i]);
+                    }
+                }
+                return statement;
+            }, (rs, row) -> new Deleted(rs.getObject(1, UUID.class), rs.getString(2)));
+
+            publish(users);
+            for (Deleted user : users) {
+                userCacheInvalidator.evictAfterCommit(user.id, user.email);
+                if (userEmailIndex != null) {
+                    userEmailIndex.removeAfterCommit(user.id, user.email);
+                }
+            }
+            return users;
+        });
+        run.deleted += deleted.size();
+        run.chunks++;
+        run.updatedAt = LocalDateTime.now();
+        deletedCounter.increment(deleted.size());
+        return deleted;
+    }
+
+    // Waits for the broker inside the chunk's transaction, so a failed send rolls the chunk back
+    private void publish(List<Deleted> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(users.size());
+        for (Deleted user : users) {
+            sends.add(bulkKafkaTemplate.send(topic, user.id.toString(), new UserDeletedEvent(user.id, user.email)));
+        }
+        bulkKafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(ackTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("USER_DELETED events not acknowledged: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for USER_DELETED acknowledgements", e);
+        }
+    }
+
+    private long count(String where, List<Object> filterArgs) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE deleted_at IS NULL" + where,
+                Long.class, filterArgs.toArray());
+        return count != null ? count : 0;
+    }
+
+    private static String filter(BulkDeleteRequest request, List<Object> args) {
+        StringBuilder where = new StringBuilder();
+        if (request.getStatus() != null) {
+            where.append(" AND status = ?");
+            args.add(request.getStatus().name());
+        }
+        if (request.getCreatedBefore() != null) {
+            where.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(request.getCreatedBefore()));
+        }
+        if (request.getEmailDomain() != null) {
+            // The domain is validated to letters, digits, dots and dashes, so nothing needs escaping
+            where.append(" AND email LIKE ?");
+            args.add("%@" + request.getEmailDomain().toLowerCase(Locale.ROOT));
+        }
+        return where.toString();
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+    }
+}
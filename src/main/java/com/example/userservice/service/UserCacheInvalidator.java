@@ -0,0 +1,111 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEmail;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.util.UUID;
+
+/**
+ * Evicts User entries from the Hibernate second-level cache (users and the email -> id user-emails region).
+ * The cache has no time-based expiry, so entries live until a write path evicts them.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidator.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cache-sync.lock-timeout-ms:5000}")
+    private long lockTimeoutMillis;
+
+    // Not read-only, so ReplicaRoutingDataSource sends it to the primary
+    private TransactionTemplate primaryTransaction;
+
+    @PostConstruct
+    void init() {
+        primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Evicts once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void evictAfterCommit(UUID id, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        } else {
+            evict(id, email);
+        }
+    }
+
+    public void evict(UUID id, String email) {
+        entityManagerFactory.getCache().evict(User.class, id);
+        if (email != null) {
+            // The cached lookup may point at a purged or replaced account
+            entityManagerFactory.getCache().evict(UserEmail.class, User.normalizeEmail(email));
+        }
+        logger.debug("Evicted user {} ({}) from second-level cache", id, email);
+    }
+
+    /**
+     * For a write made on another pod: evicts the user, then caches it again from the primary, so a
+     * replica that has not replayed the write yet cannot be what refills the cache. The row is
+     * share-locked first, which waits for a writer that sent its event before committing (bulk deletes).
+     */
+    public void evictAndReload(UUID id, String email) {
+        evict(id, email);
+        primaryTransaction.executeWithoutResult(status -> {
+            // Transaction-local, so the pooled connection keeps its defaults afterwards
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                    lockTimeoutMillis + "ms");
+            jdbcTemplate.queryForList("SELECT 1 FROM users WHERE id = ? FOR SHARE", Integer.class, id);
+            // Again, in case a read refilled the entry from a replica while the lock was pending
+            evict(id, email);
+            Session session = entityManager.unwrap(Session.class);
+            // Put loaded rows into the cache without reading it
+            session.setCacheMode(CacheMode.REFRESH);
+            session.find(User.class, id);
+            if (email != null) {
+                session.find(UserEmail.class, User.normalizeEmail(email));
+            }
+        });
+    }
+
+    public void evictAll() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(User.class);
+        sessionFactory.getCache().evictEntityData(UserEmail.class);
+    }
+}
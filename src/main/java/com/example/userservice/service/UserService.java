@@ -1,57 +1,128 @@
 package com.example.userservice.service;
 
 import com.example.userservice.model.User;
+import com.example.userservice.model.UserStatus;
 import com.example.userservice.repository.UserRepository;
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.response.PublicUserResponse;
+import com.example.userservice.datasource.ReadYourWritesTracker;
+import com.example.userservice.event.consumer.UserCacheSyncListener;
 import com.example.userservice.event.publisher.UserEventProducer;
+import com.example.userservice.index.EmailIdIndex;
+import com.example.userservice.index.UserEmailIndex;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     
+    // Smallest UUID, the keyset start for the first search page
+    private static final UUID SEARCH_START = new UUID(0L, 0L);
+    
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private UserEventProducer userEventProducer;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    // Only with email-index.enabled
+    @Autowired(required = false)
+    private UserEmailIndex userEmailIndex;
+
+    @Autowired(required = false)
+    private UserCacheSyncListener userCacheSyncListener;
     
-    public Optional<User> getUserEntityById(UUID id) {
-        return userRepository.findById(id);
+    @Transactional(readOnly = true)
+    public List<PublicUserResponse> getPublicUsers(int page, int size) {
+        return userRepository.findPublicUsers(PageRequest.of(page, size));
     }
     
-    public List<UserDto> getAllUsers(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userRepository.findAll(pageable);
-        return users.getContent().stream()
-                .map(UserDto::new)
-                .collect(Collectors.toList());
+    /**
+     * Case-insensitive substring search on name and email, ordered by id.
+     * Returns up to limit + 1 rows so the caller can tell whether another page follows;
+     * pass the id of the last returned row as {@code after} to continue.
+     */
+    @Transactional(readOnly = true)
+    public List<PublicUserResponse> searchUsers(String query, UUID after, int limit) {
+        String escaped = query.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return userRepository.search(
+                "%" + escaped + "%",
+                "%" + escaped.toLowerCase(Locale.ROOT) + "%",
+                after != null ? after : SEARCH_START,
+                PageRequest.of(0, limit + 1));
     }
     
+    @Transactional(readOnly = true)
     public Optional<UserDto> getUserById(UUID id) {
         return userRepository.findById(id)
                 .map(UserDto::new);
     }
     
+    /**
+     * With the email index loaded, an unknown email is answered without SQL and a known one is read
+     * by id. The index keeps hashes, not emails, so a hit counts only if the loaded user has the
+     * email; anything else is looked up through user_emails as without the index.
+     *
+     * Other pods' sign-ups reach the index only through the cache sync, so a miss is trusted only
+     * while that consumer runs and has caught up. Otherwise the email may belong to a user created
+     * elsewhere, and the miss is checked in the database.
+     */
+    @Transactional(readOnly = true)
     public Optional<UserDto> getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        if (userEmailIndex != null && userEmailIndex.isReady()) {
+            UUID id = userEmailIndex.lookup(email);
+            if (id == null) {
+                if (userCacheSyncListener != null && userCacheSyncListener.isCaughtUp()) {
+                    return Optional.empty();
+                }
+                userEmailIndex.recordUncheckedMiss();
+            } else {
+                if (id != EmailIdIndex.UNRESOLVED) {
+                    Optional<User> user = userRepository.findById(id);
+                    if (user.isPresent() && user.get().getEmail().equals(User.normalizeEmail(email))) {
+                        return Optional.of(new UserDto(user.get()));
+                    }
+                }
+                userEmailIndex.recordFallback();
+            }
+        }
+        return userRepository.loadByEmail(email)
                 .map(UserDto::new);
     }
     
+    @Transactional
     public UserDto createUser(String email, String name) {
-        if (userRepository.existsByEmail(email)) {
+        readYourWritesTracker.markWrite();
+        email = User.normalizeEmail(email);
+        if (userRepository.loadByEmail(email).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
         
+        // A previously deleted account may still hold this email as a tombstone
+        userRepository.deleteTombstoneByEmail(email);
+        
         User user = new User(email, name);
         User saved = userRepository.save(user);
+        // Lookups after the old account was deleted may have cached email -> its id
+        userCacheInvalidator.evictAfterCommit(saved.getId(), email);
+        if (userEmailIndex != null) {
+            userEmailIndex.addAfterCommit(saved.getId(), email);
+        }
         
         // Publish user created event for Product server
         userEventProducer.publishUserCreatedEvent(saved);
@@ -59,7 +130,9 @@ public class UserService {
         return new UserDto(saved);
     }
     
+    @Transactional
     public Optional<UserDto> updateUser(UUID id, String name) {
+        readYourWritesTracker.markWrite();
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
@@ -67,6 +140,7 @@ public class UserService {
                 user.setName(name);
             }
             User saved = userRepository.save(user);
+            userCacheInvalidator.evictAfterCommit(saved.getId(), saved.getEmail());
             
             // Publish user updated event
             userEventProducer.publishUserUpdatedEvent(saved);
@@ -76,15 +150,53 @@ public class UserService {
         return Optional.empty();
     }
     
+    @Transactional
+    public Optional<UserDto> suspendUser(UUID id) {
+        return changeStatus(id, UserStatus.SUSPENDED);
+    }
+    
+    @Transactional
+    public Optional<UserDto> activateUser(UUID id) {
+        return changeStatus(id, UserStatus.ACTIVE);
+    }
+    
+    private Optional<UserDto> changeStatus(UUID id, UserStatus status) {
+        readYourWritesTracker.markWrite();
+        Optional<User> userOpt = userRepository.findById(id);
+        if (userOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        User user = userOpt.get();
+        // Repeated calls are no-ops and do not publish a second event
+        if (user.getStatus() != status) {
+            user.setStatus(status);
+            userRepository.save(user);
+            userCacheInvalidator.evictAfterCommit(user.getId(), user.getEmail());
+            if (status == UserStatus.SUSPENDED) {
+                userEventProducer.publishUserSuspendedEvent(user);
+            } else {
+                userEventProducer.publishUserActivatedEvent(user);
+            }
+        }
+        return Optional.of(new UserDto(user));
+    }
+    
+    @Transactional
     public boolean deleteUser(UUID id) {
+        readYourWritesTracker.markWrite();
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             
-            // Publish user deleted event before deletion
+            // Publish user deleted event (sent after commit)
             userEventProducer.publishUserDeletedEvent(user);
             
-            userRepository.deleteById(id);
+            // Soft delete (see User @SQLDelete); UserTombstonePurger removes the row later
+            userRepository.delete(user);
+            userCacheInvalidator.evictAfterCommit(id, user.getEmail());
+            if (userEmailIndex != null) {
+                userEmailIndex.removeAfterCommit(id, user.getEmail());
+            }
             return true;
         }
         return false;
@@ -0,0 +1,102 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Hard-deletes soft-deleted users once their tombstone is older than the retention period.
+ *
+ * Each chunk is its own short transaction with a lock timeout, and chunks are separated by a
+ * pause and capped per run, so a mass cleanup turns into a steady trickle of small deletes
+ * that autovacuum keeps up with instead of one long-locking, bloat-producing statement.
+ * Several pods can run it at once; SKIP LOCKED keeps them off each other's rows.
+ */
+@Component
+public class UserTombstonePurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTombstonePurger.class);
+
+    @Value("${tombstone-purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tombstone-purge.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${tombstone-purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tombstone-purge.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Value("${tombstone-purge.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${tombstone-purge.lock-timeout-ms:2000}")
+    private long lockTimeoutMillis;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter purged;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        purged = Counter.builder("users.tombstones.purged")
+                .description("Soft-deleted users removed by the background purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${tombstone-purge.initial-delay-ms:60000}",
+               fixedDelayString = "${tombstone-purge.interval-ms:60000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Duration retention = Duration.ofHours(retentionHours);
+        Duration lockTimeout = Duration.ofMillis(lockTimeoutMillis);
+        int total = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                Integer deleted = transactionTemplate.execute(
+                        status -> userRepository.purgeTombstones(retention, chunkSize, lockTimeout));
+                int count = deleted != null ? deleted : 0;
+                total += count;
+                purged.increment(count);
+                if (count < chunkSize) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (DataAccessException | TransactionException e) {
+            // Lock timeout or database unavailable; the next run picks up where this one stopped
+            logger.warn("Tombstone purge stopped after {} rows: {}", total, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (total > 0) {
+            logger.info("Purged {} soft-deleted users", total);
+        }
+    }
+}
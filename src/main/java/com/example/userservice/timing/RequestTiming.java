@@ -0,0 +1,158 @@
+package com.example.userservice.timing;
+
+/**
+ * Stage timings of the request on the current thread. One instance per thread is reused across
+ * requests, so recording a stage is a thread-local lookup, a nanoTime call and array updates.
+ * Outside a timed request {@link #start()} returns {@link #NOT_TIMED} and {@link #stop} returns
+ * immediately; instrumented code does not need to know whether the request is sampled.
+ *
+ * <pre>
+ * long t = RequestTiming.start();
+ * try { ... } finally { RequestTiming.stop(TimingStage.DB, t); }
+ * </pre>
+ *
+ * A request that continues on other threads (async controller methods) takes its instance along:
+ * {@link #current()} on the request thread, {@link #attach} / {@link #restore} around the work
+ * elsewhere. ServerTimingFilter detaches it from the request thread when async processing starts,
+ * so the next request on that thread gets a fresh instance.
+ */
+public final class RequestTiming {
+
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final TimingStage[] STAGES = TimingStage.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[STAGES.length];
+    private final int[] counts = new int[STAGES.length];
+    // Offset of the first call of each stage from the request start, for span placement
+    private final long[] firstOffsetNanos = new long[STAGES.length];
+    private boolean active;
+    private long startNanos;
+
+    private RequestTiming() {
+    }
+
+    public static long start() {
+        RequestTiming timing = CURRENT.get();
+        return timing != null && timing.active ? System.nanoTime() : NOT_TIMED;
+    }
+
+    public static void stop(TimingStage stage, long start) {
+        if (start == NOT_TIMED) {
+            return;
+        }
+        RequestTiming timing = CURRENT.get();
+        if (timing == null || !timing.active) {
+            return;
+        }
+        int i = stage.ordinal();
+        if (timing.counts[i] == 0) {
+            timing.firstOffsetNanos[i] = start - timing.startNanos;
+        }
+        timing.nanos[i] += System.nanoTime() - start;
+        timing.counts[i]++;
+    }
+
+    /** The timing of the request running on this thread, or null when it is not timed. */
+    public static RequestTiming current() {
+        RequestTiming timing = CURRENT.get();
+        return timing != null && timing.active ? timing : null;
+    }
+
+    /**
+     * Records this thread's stages into {@code timing} (may be null) until {@link #restore}.
+     *
+     * @return the thread's previous instance, to pass to restore
+     */
+    public static RequestTiming attach(RequestTiming timing) {
+        RequestTiming previous = CURRENT.get();
+        if (timing != null) {
+            CURRENT.set(timing);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    public static void restore(RequestTiming previous) {
+        attach(previous);
+    }
+
+    // The request went async; its instance lives on in the request, not in this thread
+    static void detach() {
+        CURRENT.remove();
+    }
+
+    /** Starts timing the current thread's request, reusing the thread's instance. */
+    static RequestTiming begin() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            timing = new RequestTiming();
+            CURRENT.set(timing);
+        }
+        for (int i = 0; i < STAGES.length; i++) {
+            timing.nanos[i] = 0;
+            timing.counts[i] = 0;
+            timing.firstOffsetNanos[i] = 0;
+        }
+        timing.startNanos = System.nanoTime();
+        timing.active = true;
+        return timing;
+    }
+
+    /** Stops recording; returns the request's total duration. The values stay readable until the next begin(). */
+    long end() {
+        active = false;
+        return System.nanoTime() - startNanos;
+    }
+
+    long nanos(TimingStage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    int count(TimingStage stage) {
+        return counts[stage.ordinal()];
+    }
+
+    long firstOffsetNanos(TimingStage stage) {
+        return firstOffsetNanos[stage.ordinal()];
+    }
+
+    /**
+     * Server-Timing value, e.g. {@code auth;dur=0.021, db;dur=1.204;desc="2 calls", total;dur=2.310}.
+     * Stages that did not run are left out; durations are milliseconds.
+     */
+    String serverTiming(long totalNanos) {
+        StringBuilder value = new StringBuilder(128);
+        for (TimingStage stage : STAGES) {
+            int count = counts[stage.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            value.append(stage.metricName()).append(";dur=");
+            appendMillis(value, nanos[stage.ordinal()]);
+            if (count > 1) {
+                value.append(";desc=\"").append(count).append(" calls\"");
+            }
+            value.append(", ");
+        }
+        value.append("total;dur=");
+        appendMillis(value, totalNanos);
+        return value.toString();
+    }
+
+    // Millisecond value with microsecond precision, without String.format
+    private static void appendMillis(StringBuilder value, long nanos) {
+        long micros = Math.max(nanos, 0) / 1_000;
+        long fraction = micros % 1_000;
+        value.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            value.append('0');
+        }
+        if (fraction < 10) {
+            value.append('0');
+        }
+        value.append(fraction);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.userservice.timing;
+
+import com.example.userservice.warmup.StartupWarmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times selected requests stage by stage and reports the breakdown in a Server-Timing header,
+ * one access log line and, if enabled, exported spans. A request is timed when it carries the
+ * opt-in header, when it carries a sampled W3C traceparent and export is on, or by random sampling.
+ *
+ * Runs ahead of the security chain so the logging and authentication filters are inside the total.
+ * The body of a timed request is buffered so the header can still be set after the handler has
+ * written it; untimed requests pass through untouched.
+ *
+ * An async request is finished by its last dispatch: the timing and the buffered response are
+ * kept in a request attribute in between, and the threads the work continues on record into the
+ * same timing (see RequestTiming).
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger(ServerTimingFilter.class);
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final String TIMED_ATTRIBUTE = ServerTimingFilter.class.getName() + ".TIMED";
+
+    private final String requestHeader;
+    private final double sampleRate;
+    private final TimingSpanExporter exporter;
+
+    // A timed request between its first and last dispatch
+    private static final class TimedRequest {
+        final RequestTiming timing;
+        final HttpServletResponse response;
+        final ContentCachingResponseWrapper wrapper;
+        final String traceparent;
+        final long startEpochNanos;
+
+        TimedRequest(RequestTiming timing, HttpServletResponse response, ContentCachingResponseWrapper wrapper,
+                     String traceparent, long startEpochNanos) {
+            this.timing = timing;
+            this.response = response;
+            this.wrapper = wrapper;
+            this.traceparent = traceparent;
+            this.startEpochNanos = startEpochNanos;
+        }
+    }
+
+    public ServerTimingFilter(String requestHeader, double sampleRate, TimingSpanExporter exporter) {
+        this.requestHeader = requestHeader;
+        this.sampleRate = sampleRate;
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return StartupWarmup.isWarmupRequest(request);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        TimedRequest timed = (TimedRequest) request.getAttribute(TIMED_ATTRIBUTE);
+        if (timed != null) {
+            resume(timed, request, response, filterChain);
+            return;
+        }
+        if (isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String traceparent = exporter != null ? validTraceparent(request.getHeader(TRACEPARENT_HEADER)) : null;
+        if (!shouldTime(request, traceparent)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        RequestTiming timing = RequestTiming.begin();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        timed = new TimedRequest(timing, response, wrapper, traceparent, startEpochNanos);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (isAsyncStarted(request)) {
+                request.setAttribute(TIMED_ATTRIBUTE, timed);
+                RequestTiming.detach();
+            } else {
+                finish(timed, request);
+            }
+        }
+    }
+
+    // A later dispatch of a request that went async; the response passed in already wraps the buffer
+    private void resume(TimedRequest timed, HttpServletRequest request, HttpServletResponse response,
+                        FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming previous = RequestTiming.attach(timed.timing);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.restore(previous);
+            if (!isAsyncStarted(request)) {
+                finish(timed, request);
+            }
+        }
+    }
+
+    private void finish(TimedRequest timed, HttpServletRequest request) throws IOException {
+        RequestTiming timing = timed.timing;
+        ContentCachingResponseWrapper wrapper = timed.wrapper;
+        long totalNanos = timing.end();
+        String serverTiming = timing.serverTiming(totalNanos);
+        if (!timed.response.isCommitted()) {
+            timed.response.setHeader(SERVER_TIMING_HEADER, serverTiming);
+        }
+        accessLogger.info("{} {} {} {}", request.getMethod(), request.getRequestURI(), wrapper.getStatus(), serverTiming);
+        if (exporter != null) {
+            String traceparent = timed.traceparent;
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            exporter.export(new TimedSpan(
+                    traceparent != null ? traceparent.substring(3, 35) : TimingSpanExporter.randomId(2),
+                    TimingSpanExporter.randomId(1),
+                    traceparent != null ? traceparent.substring(36, 52) : null,
+                    request.getMethod(), route != null ? route.toString() : null, wrapper.getStatus(),
+                    timed.startEpochNanos, timing, totalNanos));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private boolean shouldTime(HttpServletRequest request, String traceparent) {
+        if (request.getHeader(requestHeader) != null) {
+            return true;
+        }
+        // Flags byte, bit 0 = sampled by the caller
+        if (traceparent != null && (Character.digit(traceparent.charAt(54), 16) & 1) == 1) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // W3C trace context: 00-<32 hex trace id>-<16 hex parent span id>-<2 hex flags>
+    private static String validTraceparent(String value) {
+        if (value == null || value.length() != 55 || !value.startsWith("00-")
+                || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return null;
+        }
+        for (int i = 3; i < 55; i++) {
+            if (i != 35 && i != 52 && Character.digit(value.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return value;
+    }
+}
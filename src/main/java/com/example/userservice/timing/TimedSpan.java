@@ -0,0 +1,41 @@
+package com.example.userservice.timing;
+
+/**
+ * A finished timed request as handed to the exporter: the server span and, per stage that ran,
+ * its first start offset, accumulated duration and call count. Only built when export is enabled.
+ */
+final class TimedSpan {
+
+    private static final TimingStage[] STAGES = TimingStage.values();
+
+    final String traceId;
+    final String spanId;
+    final String parentSpanId;
+    final String name;
+    final String route;
+    final String method;
+    final int status;
+    final long startEpochNanos;
+    final long durationNanos;
+    final long[] stageOffsetNanos = new long[STAGES.length];
+    final long[] stageNanos = new long[STAGES.length];
+    final int[] stageCounts = new int[STAGES.length];
+
+    TimedSpan(String traceId, String spanId, String parentSpanId, String method, String route, int status,
+              long startEpochNanos, RequestTiming timing, long durationNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.method = method;
+        this.route = route;
+        this.name = route != null ? method + " " + route : method;
+        this.status = status;
+        this.startEpochNanos = startEpochNanos;
+        this.durationNanos = durationNanos;
+        for (TimingStage stage : STAGES) {
+            stageOffsetNanos[stage.ordinal()] = timing.firstOffsetNanos(stage);
+            stageNanos[stage.ordinal()] = timing.nanos(stage);
+            stageCounts[stage.ordinal()] = timing.count(stage);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.userservice.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds Hibernate's connection acquisition and second-level cache events into the current
+ * request's timing. Statement time (Hibernate and JdbcTemplate) comes from StatementStats.
+ * Registered with hibernate.session.events.auto, which creates one instance per session;
+ * events of a session are sequential, so plain fields hold the start times.
+ */
+public class TimingSessionEventListener implements SessionEventListener {
+
+    private long connectionStart = RequestTiming.NOT_TIMED;
+    private long cacheGetStart = RequestTiming.NOT_TIMED;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionStart = RequestTiming.start();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTiming.stop(TimingStage.DB_POOL, connectionStart);
+    }
+
+    @Override
+    public void cacheGetStart() {
+        cacheGetStart = RequestTiming.start();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestTiming.stop(TimingStage.CACHE, cacheGetStart);
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.userservice.timing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports timed requests as OTLP/HTTP JSON traces: a server span per request with one child span
+ * per stage. A stage child starts at the stage's first call and lasts its accumulated duration, so
+ * repeated calls (several queries) show as one span with a call count.
+ *
+ * Requests only enqueue; a daemon thread batches and posts. When the queue is full spans are dropped
+ * and counted instead of slowing requests down.
+ */
+@Component
+@ConditionalOnProperty(name = "timing.export.enabled", havingValue = "true")
+public class TimingSpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingSpanExporter.class);
+    private static final TimingStage[] STAGES = TimingStage.values();
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    @Value("${timing.export.endpoint:http://localhost:4318/v1/traces}")
+    private String endpoint;
+
+    @Value("${timing.export.batch-size:256}")
+    private int batchSize;
+
+    @Value("${timing.export.queue-capacity:4096}")
+    private int queueCapacity;
+
+    @Value("${timing.export.interval-ms:1000}")
+    private long intervalMillis;
+
+    @Value("${spring.application.name:user-service}")
+    private String serviceName;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<TimedSpan> queue;
+    private HttpClient client;
+    private Counter exported;
+    private Counter dropped;
+    private Counter failed;
+    private Thread worker;
+    private volatile boolean running;
+    private boolean lastSendFailed;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        exported = meterRegistry.counter("timing.spans.exported");
+        dropped = meterRegistry.counter("timing.spans.dropped");
+        failed = meterRegistry.counter("timing.spans.failed");
+        running = true;
+        worker = new Thread(this::run, "timing-span-exporter");
+        worker.setDaemon(true);
+        worker.start();
+        logger.info("Exporting request timing spans to {}", endpoint);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    void export(TimedSpan span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<TimedSpan> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                // Wait for a first span, then collect up to a batch within the interval
+                TimedSpan first = queue.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    TimedSpan next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: send what is left
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<TimedSpan> batch) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint))
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(encode(batch)))
+                    .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("collector responded " + response.statusCode());
+            }
+            exported.increment(batch.size());
+            lastSendFailed = false;
+        } catch (IOException | InterruptedException e) {
+            failed.increment(batch.size());
+            // Warn once per outage rather than once per batch
+            if (!lastSendFailed) {
+                logger.warn("Failed to export {} timing spans to {}: {}", batch.size(), endpoint, e.toString());
+            }
+            lastSendFailed = true;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private byte[] encode(List<TimedSpan> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512 * batch.size());
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            writeAttribute(json, "service.name", serviceName);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", "user-service.timing");
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            for (TimedSpan span : batch) {
+                writeServerSpan(json, span);
+                for (TimingStage stage : STAGES) {
+                    if (span.stageCounts[stage.ordinal()] > 0) {
+                        writeStageSpan(json, span, stage);
+                    }
+                }
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeServerSpan(JsonGenerator json, TimedSpan span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.traceId);
+        json.writeStringField("spanId", span.spanId);
+        if (span.parentSpanId != null) {
+            json.writeStringField("parentSpanId", span.parentSpanId);
+        }
+        json.writeStringField("name", span.name);
+        json.writeNumberField("kind", SPAN_KIND_SERVER);
+        // OTLP JSON encodes 64-bit integers as strings
+        json.writeStringField("startTimeUnixNano", Long.toString(span.startEpochNanos));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.startEpochNanos + span.durationNanos));
+        json.writeArrayFieldStart("attributes");
+        writeAttribute(json, "http.request.method", span.method);
+        if (span.route != null) {
+            writeAttribute(json, "http.route", span.route);
+        }
+        writeAttribute(json, "http.response.status_code", span.status);
+        json.writeEndArray();
+        if (span.status >= 500) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", STATUS_CODE_ERROR);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeStageSpan(JsonGenerator json, TimedSpan span, TimingStage stage) throws IOException {
+        int i = stage.ordinal();
+        long start = span.startEpochNanos + span.stageOffsetNanos[i];
+        json.writeStartObject();
+        json.writeStringField("traceId", span.traceId);
+        json.writeStringField("spanId", randomId(1));
+        json.writeStringField("parentSpanId", span.spanId);
+        json.writeStringField("name", stage.metricName());
+        json.writeNumberField("kind", SPAN_KIND_INTERNAL);
+        json.writeStringField("startTimeUnixNano", Long.toString(start));
+        json.writeStringField("endTimeUnixNano", Long.toString(start + span.stageNanos[i]));
+        json.writeArrayFieldStart("attributes");
+        writeAttribute(json, "timing.calls", span.stageCounts[i]);
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        json.writeStringField("stringValue", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, long value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        json.writeStringField("intValue", Long.toString(value));
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    /** Random non-zero hex id of 8 bytes per long: 1 for span ids, 2 for trace ids. */
+    static String randomId(int longs) {
+        StringBuilder id = new StringBuilder(longs * 16);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < longs; i++) {
+            long value = random.nextLong();
+            if (value == 0) {
+                value = 1;
+            }
+            String hex = Long.toHexString(value);
+            for (int pad = hex.length(); pad < 16; pad++) {
+                id.append('0');
+            }
+            id.append(hex);
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.userservice.timing;
+
+/**
+ * Stages timed within a request, in Server-Timing header order. The metric name is what
+ * appears in the header, the access log and the exported span names.
+ */
+public enum TimingStage {
+    LOGGING("log"),
+    AUTH("auth"),
+    // Waiting for a DbCallExecutor thread
+    QUEUE("queue"),
+    CACHE("cache"),
+    DB_POOL("db-pool"),
+    DB("db"),
+    KAFKA("kafka"),
+    JSON("json");
+
+    private final String metricName;
+
+    TimingStage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.userservice.warmup;
+
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEmail;
+import com.example.userservice.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Warms a fresh pod up before it reports ready:
+ * 1. opens the Hikari pool(s) up to their minimum idle size
+ * 2. streams the most recently active users through Hibernate to fill the second-level
+ *    cache (users and their email -> id entries)
+ * 3. replays synthetic requests against the UserController hot paths over loopback so
+ *    the JIT compiles them before real traffic arrives
+ *
+ * WarmupHealthIndicator keeps the readiness group DOWN until this finishes or times out.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final int EMAIL_PRIME_BATCH = 500;
+
+    public static final String WARMUP_HEADER = "X-Warmup";
+
+    // Per-boot secret sent only by the replay below; never logged or exposed
+    private static final byte[] WARMUP_TOKEN = newWarmupToken();
+
+    private static volatile boolean running;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.prime-users:5000}")
+    private int primeUsers;
+
+    @Value("${warmup.sample-users:20}")
+    private int sampleUsers;
+
+    @Value("${warmup.synthetic-requests:2000}")
+    private int syntheticRequests;
+
+    @Value("${warmup.timeout-seconds:90}")
+    private long timeoutSeconds;
+
+    @Autowired
+    private List<DataSource> dataSources;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean completed;
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Synthetic warm-up request replayed by this instance: carries this boot's secret and
+     * arrives while warm-up is still running. Client addresses are not trusted, since
+     * forwarded headers can rewrite them.
+     */
+    public static boolean isWarmupRequest(HttpServletRequest request) {
+        if (!running) {
+            return false;
+        }
+        String token = request.getHeader(WARMUP_HEADER);
+        return token != null && MessageDigest.isEqual(WARMUP_TOKEN, token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] newWarmupToken() {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(random).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            completed = true;
+            return;
+        }
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        running = true;
+        Thread thread = new Thread(() -> run(port), "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(int port) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutSeconds * 1000;
+        try {
+            openConnectionPools();
+            List<User> samples = primeCaches();
+            if (System.currentTimeMillis() < deadline) {
+                replaySyntheticRequests(port, samples, deadline);
+            }
+            logger.info("Startup warm-up finished in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Never keep a pod unready because warm-up failed; it only costs latency
+            logger.warn("Startup warm-up aborted after {} ms: {}", System.currentTimeMillis() - start, e.getMessage());
+        } finally {
+            running = false;
+            completed = true;
+        }
+    }
+
+    private void openConnectionPools() throws SQLException {
+        for (DataSource dataSource : dataSources) {
+            // The "dataSource" bean is wrapped for statement counting (StatementAccountingConfig)
+            if (dataSource instanceof ProxyDataSource) {
+                dataSource = ((ProxyDataSource) dataSource).getDataSource();
+            }
+            if (!(dataSource instanceof HikariDataSource)) {
+                continue;
+            }
+            HikariDataSource hikari = (HikariDataSource) dataSource;
+            int target = Math.max(1, hikari.getMinimumIdle());
+            List<Connection> connections = new ArrayList<>(target);
+            try {
+                for (int i = 0; i < target; i++) {
+                    connections.add(hikari.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+            logger.info("Warm-up opened {} connection(s) in pool {}", connections.size(), hikari.getPoolName());
+        }
+    }
+
+    private List<User> primeCaches() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<User> samples = new ArrayList<>(sampleUsers);
+        Integer primed = readOnly.execute(status -> {
+            int count = 0;
+            List<String> emails = new ArrayList<>(EMAIL_PRIME_BATCH);
+            try (Stream<User> users = userRepository.streamRecentlyActive(PageRequest.of(0, primeUsers))) {
+                for (User user : (Iterable<User>) users::iterator) {
+                    if (samples.size() < sampleUsers) {
+                        samples.add(user);
+                    }
+                    // Loading puts the entity into the second-level cache;
+                    // detach so the scan does not grow the persistence context
+                    entityManager.detach(user);
+                    emails.add(user.getEmail());
+                    if (emails.size() == EMAIL_PRIME_BATCH) {
+                        primeEmailLookups(emails);
+                    }
+                    count++;
+                }
+            }
+            primeEmailLookups(emails);
+            return count;
+        });
+        logger.info("Warm-up primed {} recently active user(s) into the second-level cache", primed);
+        return samples;
+    }
+
+    // Caches the email -> id entries of the batch, one IN query per batch instead of one lookup per user
+    private void primeEmailLookups(List<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        for (UserEmail entry : entityManager.createQuery(
+                "select e from UserEmail e where e.email in :emails", UserEmail.class)
+                .setParameter("emails", emails)
+                .getResultList()) {
+            entityManager.detach(entry);
+        }
+        emails.clear();
+    }
+
+    private void replaySyntheticRequests(int port, List<User> samples, long deadline) {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        String base = "http://localhost:" + port + "/api/users";
+        int sent = 0;
+        int failed = 0;
+        for (int i = 0; i < syntheticRequests && System.currentTimeMillis() < deadline; i++) {
+            User sample = samples.isEmpty() ? null : samples.get(i % samples.size());
+            String email = sample != null ? sample.getEmail() : "warmup-" + i + "@warmup.invalid";
+            UUID id = sample != null ? sample.getId() : UUID.randomUUID();
+            String encodedEmail = URLEncoder.encode(email, StandardCharsets.UTF_8);
+
+            String path;
+            switch (i % 4) {
+                case 0:
+                    path = "/gateway/lookup/" + encodedEmail;
+                    break;
+                case 1:
+                    path = "/" + id;
+                    break;
+                case 2:
+                    path = "/me";
+                    break;
+                default:
+                    path = "/email/" + encodedEmail;
+                    break;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+                    .header(WARMUP_HEADER, new String(WARMUP_TOKEN, StandardCharsets.US_ASCII))
+                    .header("X-User-Id", id.toString())
+                    .header("X-User-Email", email)
+                    .header("X-User-Roles", "USER")
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                sent++;
+            } catch (Exception e) {
+                failed++;
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+        logger.info("Warm-up replayed {} synthetic request(s) ({} failed)", sent, failed);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness health group: DOWN until StartupWarmup has finished.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Override
+    public Health health() {
+        if (startupWarmup.isCompleted()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "warm-up in progress").build();
+    }
+}